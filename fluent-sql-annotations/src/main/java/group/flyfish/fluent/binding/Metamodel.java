@@ -0,0 +1,16 @@
+package group.flyfish.fluent.binding;
+
+import java.lang.annotation.*;
+
+/**
+ * 为实体生成元模型
+ * 仅标注了该注解的实体会生成，表名仍按 javax.persistence.Table 或 spring data Table 解析
+ * 表名常量为 TABLE，与列名常量冲突时追加下划线，如存在 table 字段时为 TABLE_
+ *
+ * @author wangyu
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+@Documented
+public @interface Metamodel {
+}
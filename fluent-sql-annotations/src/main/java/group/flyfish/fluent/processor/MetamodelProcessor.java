@@ -0,0 +1,273 @@
+package group.flyfish.fluent.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * 实体元模型生成器
+ * 为标注了 {@link group.flyfish.fluent.binding.Metamodel} 的实体生成形如 SaasTenant_ 的元模型类，
+ * 包含预先计算的表名、列名和可直接代替方法引用的字段常量，未标注的实体（包括仅标注了 @Table 的实体）不做处理
+ * 命名规则与 EntityNameUtils 保持一致，运行时不再需要序列化lambda和反射字段
+ *
+ * @author wangyu
+ */
+@SupportedAnnotationTypes(MetamodelProcessor.METAMODEL)
+public class MetamodelProcessor extends AbstractProcessor {
+
+    static final String METAMODEL = "group.flyfish.fluent.binding.Metamodel";
+    private static final String JPA_TABLE = "javax.persistence.Table";
+    private static final String SPRING_DATA_TABLE = "org.springframework.data.relational.core.mapping.Table";
+
+    private static final String JPA_COLUMN = "javax.persistence.Column";
+    private static final String JPA_TRANSIENT = "javax.persistence.Transient";
+    private static final String SPRING_DATA_TRANSIENT = "org.springframework.data.annotation.Transient";
+
+    private static final String SFUNCTION = "group.flyfish.fluent.utils.sql.SFunction";
+
+    // 表名常量的名称，与列名常量冲突时追加下划线
+    private static final String TABLE_CONSTANT = "TABLE";
+
+    // 已生成的类，避免多轮处理时重复生成
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (TypeElement entity : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                if (entity.getKind() != ElementKind.CLASS) {
+                    continue;
+                }
+                String qualifiedName = entity.getQualifiedName().toString();
+                if (generated.add(qualifiedName)) {
+                    try {
+                        generate(entity);
+                    } catch (IOException e) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                "生成元模型失败：" + e.getMessage(), entity);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成元模型类
+     *
+     * @param entity 实体
+     * @throws IOException 写入异常
+     */
+    private void generate(TypeElement entity) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+        String entityName = entityName(entity, packageName);
+        String className = entityName.replace('.', '_') + "_";
+        String qualifiedClassName = packageName.isEmpty() ? className : packageName + "." + className;
+        Map<String, String> columns = resolveColumns(entity);
+        // 先为列分配常量名，表名常量让出冲突的名称
+        Set<String> constants = new HashSet<>();
+        Map<String, String> columnConstants = new LinkedHashMap<>();
+        for (String property : columns.keySet()) {
+            columnConstants.put(property, unique(constantName(property), constants));
+        }
+        String tableConstant = unique(TABLE_CONSTANT, constants);
+        if (!TABLE_CONSTANT.equals(tableConstant)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "列名常量与表名常量 " + TABLE_CONSTANT + " 冲突，表名常量已更名为 " + tableConstant, entity);
+        }
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedClassName, entity);
+        try (Writer writer = file.openWriter()) {
+            StringBuilder sb = new StringBuilder();
+            if (!packageName.isEmpty()) {
+                sb.append("package ").append(packageName).append(";\n\n");
+            }
+            sb.append("import ").append(SFUNCTION).append(";\n\n");
+            sb.append("/**\n * {@link ").append(entityName).append("} 的元模型，由 fluent-sql 生成，请勿修改\n */\n");
+            sb.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+            sb.append("public final class ").append(className).append(" {\n\n");
+            sb.append("    public static final String ").append(tableConstant).append(" = ")
+                    .append(literal(resolveTableName(entity))).append(";\n\n");
+            for (Map.Entry<String, String> entry : columns.entrySet()) {
+                sb.append("    public static final String ").append(columnConstants.get(entry.getKey())).append(" = ")
+                        .append(literal(entry.getValue())).append(";\n");
+            }
+            sb.append('\n');
+            for (Map.Entry<String, String> entry : columns.entrySet()) {
+                sb.append("    public static final SFunction<").append(entityName).append(", ?> ").append(entry.getKey())
+                        .append(" = new SFunction.StaticRef<>(").append(entityName).append(".class, ")
+                        .append(literal(entry.getKey())).append(", ").append(literal(entry.getValue())).append(");\n");
+            }
+            sb.append("\n    private ").append(className).append("() {\n    }\n}\n");
+            writer.write(sb.toString());
+        }
+    }
+
+    /**
+     * 取得包内的类名，嵌套类以点号连接
+     */
+    private String entityName(TypeElement entity, String packageName) {
+        String qualifiedName = entity.getQualifiedName().toString();
+        return packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+    }
+
+    /**
+     * 解析表名，与 EntityNameUtils.getTableName 一致
+     *
+     * @param entity 实体
+     * @return 表名
+     */
+    private String resolveTableName(TypeElement entity) {
+        for (String annotation : Arrays.asList(JPA_TABLE, SPRING_DATA_TABLE)) {
+            String name = annotationValue(entity, annotation, "name");
+            if (null != name && !name.isBlank()) {
+                return name;
+            }
+        }
+        return "`" + camelToUnderline(entity.getSimpleName().toString()) + "`";
+    }
+
+    /**
+     * 解析所有列，包含父类字段，与 EntityNameUtils.getFields 一致
+     *
+     * @param entity 实体
+     * @return 属性 -> 列名
+     */
+    private Map<String, String> resolveColumns(TypeElement entity) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        TypeElement current = entity;
+        while (null != current && !"java.lang.Object".contentEquals(current.getQualifiedName())) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (isColumn(field)) {
+                    String property = field.getSimpleName().toString();
+                    columns.putIfAbsent(property, resolveColumnName(field));
+                }
+            }
+            current = superclass(current);
+        }
+        return columns;
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private boolean isColumn(VariableElement field) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.TRANSIENT)) {
+            return false;
+        }
+        return null == findAnnotation(field, JPA_TRANSIENT) && null == findAnnotation(field, SPRING_DATA_TRANSIENT);
+    }
+
+    private String resolveColumnName(VariableElement field) {
+        String name = annotationValue(field, JPA_COLUMN, "name");
+        if (null != name && !name.isBlank()) {
+            return name;
+        }
+        return camelToUnderline(field.getSimpleName().toString());
+    }
+
+    private AnnotationMirror findAnnotation(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotation)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private String annotationValue(Element element, String annotation, String attribute) {
+        AnnotationMirror mirror = findAnnotation(element, annotation);
+        if (null == mirror) {
+            return null;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+                return String.valueOf(entry.getValue().getValue());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 驼峰转下划线，与 SqlNameUtils.camelToUnderline 一致
+     */
+    private static String camelToUnderline(String para) {
+        if (para.length() < 3) {
+            return para.toLowerCase();
+        }
+        StringBuilder sb = new StringBuilder(para);
+        int temp = 0;
+        for (int i = 2; i < para.length(); i++) {
+            if (Character.isUpperCase(para.charAt(i))) {
+                sb.insert(i + temp, "_");
+                temp += 1;
+            }
+        }
+        return sb.toString().toLowerCase();
+    }
+
+    /**
+     * 列名常量的名称，如 createTime -> CREATE_TIME
+     */
+    private static String constantName(String property) {
+        StringBuilder sb = new StringBuilder(property.length() + 8);
+        for (int i = 0; i < property.length(); i++) {
+            char c = property.charAt(i);
+            if (i > 0 && Character.isUpperCase(c)) {
+                sb.append('_');
+            }
+            sb.append(Character.toUpperCase(c));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 取得未被占用的常量名，冲突时追加下划线
+     *
+     * @param name      期望的名称
+     * @param allocated 已分配的名称，会加入本次结果
+     * @return 常量名
+     */
+    private static String unique(String name, Set<String> allocated) {
+        String result = name;
+        while (!allocated.add(result)) {
+            result += "_";
+        }
+        return result;
+    }
+
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
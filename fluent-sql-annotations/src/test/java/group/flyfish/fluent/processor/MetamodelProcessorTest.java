@@ -0,0 +1,171 @@
+package group.flyfish.fluent.processor;
+
+import group.flyfish.fluent.binding.Metamodel;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * 元模型生成器的编译测试
+ * 使用 {@link JavaCompiler} 编译内存中的源码，检查生成结果和编译诊断
+ *
+ * @author wangyu
+ */
+public class MetamodelProcessorTest {
+
+    // 生成代码依赖的SFunction，替身仅保留生成代码用到的部分
+    private static final String SFUNCTION = """
+            package group.flyfish.fluent.utils.sql;
+
+            public interface SFunction<T, R> extends java.util.function.Function<T, R> {
+
+                class StaticRef<T, R> implements SFunction<T, R> {
+
+                    public StaticRef(Class<?> type, String name, String column) {
+                    }
+
+                    @Override
+                    public R apply(T t) {
+                        return null;
+                    }
+                }
+            }
+            """;
+
+    private static final String JPA_TABLE = """
+            package javax.persistence;
+
+            public @interface Table {
+                String name() default "";
+            }
+            """;
+
+    private Path output;
+
+    @Before
+    public void setUp() throws IOException {
+        output = Files.createTempDirectory("metamodel");
+    }
+
+    @Test
+    public void generatesForMetamodel() throws IOException {
+        Result result = compile(source("demo.Tenant", """
+                package demo;
+
+                @group.flyfish.fluent.binding.Metamodel
+                @javax.persistence.Table(name = "saas_tenant")
+                public class Tenant {
+                    private String id;
+                    private String createTime;
+                }
+                """));
+        assertTrue(result.messages(), result.success);
+        String generated = Files.readString(output.resolve("demo/Tenant_.java"));
+        assertTrue(generated.contains("public static final String TABLE = \"saas_tenant\";"));
+        assertTrue(generated.contains("public static final String CREATE_TIME = \"create_time\";"));
+        assertTrue(generated.contains("SFunction<Tenant, ?> createTime = new SFunction.StaticRef<>(Tenant.class, \"createTime\", \"create_time\");"));
+    }
+
+    @Test
+    public void skipsTableWithoutMetamodel() {
+        Result result = compile(source("demo.Order", """
+                package demo;
+
+                @javax.persistence.Table(name = "saas_order")
+                public class Order {
+                    private String id;
+                }
+                """));
+        assertTrue(result.messages(), result.success);
+        assertFalse(Files.exists(output.resolve("demo/Order_.java")));
+    }
+
+    @Test
+    public void renamesTableConstantOnConflict() throws IOException {
+        Result result = compile(source("demo.Seat", """
+                package demo;
+
+                @group.flyfish.fluent.binding.Metamodel
+                public class Seat {
+                    private String table;
+                    private Integer number;
+                }
+                """));
+        assertTrue(result.messages(), result.success);
+        String generated = Files.readString(output.resolve("demo/Seat_.java"));
+        assertTrue(generated.contains("public static final String TABLE = \"table\";"));
+        assertTrue(generated.contains("public static final String TABLE_ = \"`seat`\";"));
+        assertTrue(result.messages(), result.diagnostics.stream()
+                .anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.WARNING));
+    }
+
+    /**
+     * 编译源码，生成的源码和类文件均写入临时目录
+     *
+     * @param entity 实体源码
+     * @return 编译结果
+     */
+    private Result compile(JavaFileObject entity) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("测试需要在JDK上运行！", compiler);
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        StandardJavaFileManager manager = compiler.getStandardFileManager(collector, Locale.ROOT, StandardCharsets.UTF_8);
+        try (manager) {
+            manager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(output.toFile()));
+            manager.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(output.toFile()));
+            manager.setLocation(StandardLocation.CLASS_PATH, List.of(classpath()));
+            List<JavaFileObject> sources = new ArrayList<>();
+            sources.add(source("group.flyfish.fluent.utils.sql.SFunction", SFUNCTION));
+            sources.add(source("javax.persistence.Table", JPA_TABLE));
+            sources.add(entity);
+            JavaCompiler.CompilationTask task = compiler.getTask(null, manager, collector, List.of(), null, sources);
+            task.setProcessors(List.of(new MetamodelProcessor()));
+            boolean success = task.call();
+            return new Result(success, collector.getDiagnostics());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 注解所在的类路径，供被编译的源码引用 {@link Metamodel}
+     */
+    private static File classpath() {
+        try {
+            return new File(Metamodel.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JavaFileObject source(String className, String content) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+    private record Result(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+
+        String messages() {
+            return diagnostics.stream().map(diagnostic -> diagnostic.getMessage(Locale.ROOT)).collect(Collectors.joining("\n"));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package group.flyfish.fluent.chain;
+
+import group.flyfish.fluent.chain.execution.BoundProxy;
+import group.flyfish.fluent.chain.execution.CompiledStatement;
+import group.flyfish.fluent.entity.ExecutionHints;
+import group.flyfish.fluent.entity.SQLEntity;
+import group.flyfish.fluent.utils.data.ParameterUtils;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+
+/**
+ * 编译后的sql语句实现
+ * 所有字段均为final，构建后不再依赖链式上下文和线程局部别名
+ *
+ * @param <T> 结果泛型
+ * @author wangyu
+ */
+final class CompiledStatementImpl<T> implements CompiledStatement<T> {
+
+    private final String sql;
+
+    private final String countSql;
+
+    // 已转换的参数，不对外暴露引用
+    private final Object[] parameters;
+
+    private final Class<T> resultType;
+
+    // 执行提示
+    private final ExecutionHints hints;
+
+    // 游标分页，未指定排序时为空
+    private final Keyset keyset;
+
+    // 使用编译参数的共享代理
+    private final BoundProxy<T> proxy;
+
+    CompiledStatementImpl(String sql, String countSql, Object[] parameters, Class<T> resultType, ExecutionHints hints,
+                          Keyset keyset) {
+        this.sql = sql;
+        this.countSql = countSql;
+        this.parameters = parameters.clone();
+        this.resultType = resultType;
+        this.hints = hints;
+        this.keyset = keyset;
+        this.proxy = proxy(this.parameters);
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public String getCountSql() {
+        return countSql;
+    }
+
+    @Override
+    public int getParameterCount() {
+        return parameters.length;
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return parameters.clone();
+    }
+
+    @Override
+    public Class<T> getResultType() {
+        return resultType;
+    }
+
+    @Override
+    public BoundProxy<T> fetch() {
+        return proxy;
+    }
+
+    @Override
+    public BoundProxy<T> bind(Object... parameters) {
+        Object[] values = null == parameters ? new Object[0] : parameters;
+        Assert.isTrue(values.length == this.parameters.length,
+                "参数数量不匹配，需要" + this.parameters.length + "个，实际" + values.length + "个！");
+        return proxy(Arrays.stream(values).map(ParameterUtils::convert).toArray());
+    }
+
+    /**
+     * 基于固定参数构建代理
+     *
+     * @param values 已转换的参数
+     * @return 代理
+     */
+    private BoundProxy<T> proxy(Object[] values) {
+        SQLEntity entity = SQLEntity.of(() -> sql, () -> values);
+        SQLEntity countEntity = SQLEntity.of(() -> countSql, () -> values);
+        return new DefaultBoundProxy<>(() -> entity, () -> countEntity, resultType, hints, keyset);
+    }
+}
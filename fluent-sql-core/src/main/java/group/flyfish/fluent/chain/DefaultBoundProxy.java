@@ -0,0 +1,440 @@
+package group.flyfish.fluent.chain;
+
+import group.flyfish.fluent.chain.execution.AsyncBoundEntitySpec;
+import group.flyfish.fluent.chain.execution.BoundEntitySpec;
+import group.flyfish.fluent.chain.execution.BoundProxy;
+import group.flyfish.fluent.chain.execution.ReactiveBoundEntitySpec;
+import group.flyfish.fluent.entity.BoundSQLEntity;
+import group.flyfish.fluent.entity.CursorPage;
+import group.flyfish.fluent.entity.DataPage;
+import group.flyfish.fluent.entity.ExecutionHints;
+import group.flyfish.fluent.entity.SQLEntity;
+import group.flyfish.fluent.operations.FluentSQLOperations;
+import group.flyfish.fluent.operations.ReactiveFluentSQLOperations;
+import group.flyfish.fluent.utils.concurrent.FluentExecutors;
+import group.flyfish.fluent.utils.data.ParameterUtils;
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 默认的绑定代理
+ * 由sql实体和计数sql实体提供者驱动，链式构建和编译语句共用
+ *
+ * @param <T> 结果泛型
+ * @author wangyu
+ */
+@RequiredArgsConstructor
+final class DefaultBoundProxy<T> implements BoundProxy<T> {
+
+    // sql实体提供者
+    private final Supplier<SQLEntity> entityRef;
+
+    // 计数sql实体提供者
+    private final Supplier<SQLEntity> countRef;
+
+    private final Class<T> type;
+
+    // 执行提示
+    private final ExecutionHints hints;
+
+    // 游标分页，不支持时为空
+    private final Keyset keyset;
+
+    @Override
+    public BoundEntitySpec<T> block() {
+        return new DefaultBoundEntitySpec();
+    }
+
+    @Override
+    public ReactiveBoundEntitySpec<T> reactive() {
+        return new DefaultReactiveBoundEntitySpec();
+    }
+
+    @Override
+    public AsyncBoundEntitySpec<T> async() {
+        return new DefaultAsyncBoundEntitySpec();
+    }
+
+    /**
+     * 默认的绑定实体
+     */
+    private class DefaultBoundEntitySpec implements BoundEntitySpec<T> {
+
+        private final FluentSQLOperations operations;
+
+        private final BoundSQLEntity<T> entity;
+
+        private DefaultBoundEntitySpec() {
+            this.operations = SQLImpl.operations();
+            Assert.notNull(operations, "未指定执行数据源！");
+            this.entity = BoundSQLEntity.of(entityRef, type).hints(hints);
+        }
+
+        @Override
+        public T one() {
+            return operations.selectOne(entity);
+        }
+
+        @Override
+        @NonNull
+        public List<T> all() {
+            return operations.select(entity);
+        }
+
+        @Override
+        @NonNull
+        public Stream<T> stream() {
+            return operations.stream(entity);
+        }
+
+        /**
+         * 忽略查询字段，查询当前条件下的数量
+         *
+         * @return 数量
+         */
+        @Override
+        public int count() {
+            return count(counting());
+        }
+
+        /**
+         * 分页查询，计数提交到分页执行器，与列表查询并行
+         * 关闭并行分页或处于事务中时顺序执行
+         *
+         * @param page 分页对象
+         * @return 分页结果
+         */
+        @Override
+        @NonNull
+        public DataPage<T> page(DataPage<T> page) {
+            return page(page, counting().materialize(), entity.paged(page).materialize());
+        }
+
+        /**
+         * 以渲染完毕的sql分页查询
+         * 构建器不是线程安全的，两条sql需要在调用线程渲染完毕后再分发，执行器中只负责执行
+         *
+         * @param page     分页对象
+         * @param counting 渲染后的计数sql实体
+         * @param paged    渲染后的分页sql实体
+         * @return 分页结果
+         */
+        private DataPage<T> page(DataPage<T> page, BoundSQLEntity<Integer> counting, BoundSQLEntity<T> paged) {
+            Executor executor = FluentExecutors.pageExecutor();
+            if (null == executor || !operations.supportsConcurrentQueries()) {
+                page.setTotal(count(counting));
+                page.setList(operations.select(paged));
+                return page;
+            }
+            CompletableFuture<Integer> count = CompletableFuture.supplyAsync(() -> count(counting), executor);
+            List<T> list;
+            try {
+                list = operations.select(paged);
+            } catch (RuntimeException e) {
+                // 只能阻止尚未开始的计数，已经开始的计数查询会执行完毕后释放连接
+                count.cancel(false);
+                throw e;
+            }
+            try {
+                page.setTotal(count.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+            page.setList(list);
+            return page;
+        }
+
+        /**
+         * @return 计数sql实体
+         */
+        private BoundSQLEntity<Integer> counting() {
+            return BoundSQLEntity.of(countRef, Integer.class).hints(hints);
+        }
+
+        /**
+         * 执行计数
+         *
+         * @param counting 计数sql实体
+         * @return 数量
+         */
+        private int count(BoundSQLEntity<Integer> counting) {
+            Integer result = operations.selectOne(counting);
+            return null == result ? 0 : result;
+        }
+
+        @Override
+        @NonNull
+        public CursorPage<T> seek(String cursor, int size) {
+            List<T> list = operations.select(seeking(cursor, size));
+            return keyset.page(list, size);
+        }
+
+        @Override
+        public int execute() {
+            return operations.execute(entity);
+        }
+
+        /**
+         * 批量执行，sql只渲染一次，参数逐组校验并转换
+         *
+         * @param parameters 多组参数
+         * @param batchSize  每批的数量
+         * @return 每组参数对应的更新行数
+         */
+        @Override
+        public int[] executeBatch(List<Object[]> parameters, int batchSize) {
+            return executeBatch(entity, parameters, batchSize);
+        }
+
+        /**
+         * 以指定的sql实体批量执行
+         *
+         * @param entity     sql实体
+         * @param parameters 多组参数
+         * @param batchSize  每批的数量
+         * @return 每组参数对应的更新行数
+         */
+        private int[] executeBatch(BoundSQLEntity<T> entity, List<Object[]> parameters, int batchSize) {
+            Assert.isTrue(batchSize > 0, "批次大小必须大于0！");
+            if (CollectionUtils.isEmpty(parameters)) {
+                return new int[0];
+            }
+            int count = entity.getParameters().length;
+            List<Object[]> converted = new ArrayList<>(parameters.size());
+            for (Object[] values : parameters) {
+                converted.add(convert(values, count));
+            }
+            return operations.executeBatch(entity, converted, batchSize);
+        }
+    }
+
+    /**
+     * 基于执行器的异步绑定实体，委托给阻塞的绑定实体
+     * sql在调用线程渲染完毕，执行器中只负责执行；
+     * 处于事务中时，事务绑定在当前线程，直接在调用线程执行并返回已完成的结果
+     */
+    private class DefaultAsyncBoundEntitySpec implements AsyncBoundEntitySpec<T> {
+
+        // 在调用线程创建，未绑定数据源时立即失败
+        private final DefaultBoundEntitySpec delegate = new DefaultBoundEntitySpec();
+
+        @Override
+        @NonNull
+        public CompletableFuture<T> one() {
+            BoundSQLEntity<T> entity = delegate.entity.materialize();
+            return submit(() -> delegate.operations.selectOne(entity));
+        }
+
+        @Override
+        @NonNull
+        public CompletableFuture<List<T>> all() {
+            BoundSQLEntity<T> entity = delegate.entity.materialize();
+            return submit(() -> delegate.operations.select(entity));
+        }
+
+        @Override
+        @NonNull
+        public CompletableFuture<Integer> count() {
+            BoundSQLEntity<Integer> counting = delegate.counting().materialize();
+            return submit(() -> delegate.count(counting));
+        }
+
+        @Override
+        @NonNull
+        public CompletableFuture<DataPage<T>> page(DataPage<T> page) {
+            BoundSQLEntity<Integer> counting = delegate.counting().materialize();
+            BoundSQLEntity<T> paged = delegate.entity.paged(page).materialize();
+            return submit(() -> delegate.page(page, counting, paged));
+        }
+
+        @Override
+        @NonNull
+        public CompletableFuture<CursorPage<T>> seek(String cursor, int size) {
+            BoundSQLEntity<T> seeking = seeking(cursor, size).materialize();
+            return submit(() -> keyset.page(delegate.operations.select(seeking), size));
+        }
+
+        @Override
+        @NonNull
+        public CompletableFuture<Integer> execute() {
+            BoundSQLEntity<T> entity = delegate.entity.materialize();
+            return submit(() -> delegate.operations.execute(entity));
+        }
+
+        @Override
+        @NonNull
+        public CompletableFuture<int[]> executeBatch(List<Object[]> parameters, int batchSize) {
+            BoundSQLEntity<T> entity = delegate.entity.materialize();
+            return submit(() -> delegate.executeBatch(entity, parameters, batchSize));
+        }
+
+        /**
+         * 提交到异步执行器，处于事务中时在调用线程执行
+         * 执行器在提交时获取，调整并发上限会关闭旧的执行器，不能在创建时保存
+         *
+         * @param task 任务
+         * @param <R>  结果泛型
+         * @return 结果
+         */
+        private <R> CompletableFuture<R> submit(Supplier<R> task) {
+            if (!delegate.operations.supportsConcurrentQueries()) {
+                try {
+                    return CompletableFuture.completedFuture(task.get());
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+            return CompletableFuture.supplyAsync(task, FluentExecutors.asyncExecutor());
+        }
+    }
+
+    /**
+     * 默认的异步绑定实体
+     */
+    private class DefaultReactiveBoundEntitySpec implements ReactiveBoundEntitySpec<T> {
+
+        private final ReactiveFluentSQLOperations operations;
+
+        private final BoundSQLEntity<T> entity;
+
+        private DefaultReactiveBoundEntitySpec() {
+            this.operations = SQLImpl.reactiveOperations();
+            Assert.notNull(operations, "未指定执行数据源！");
+            this.entity = BoundSQLEntity.of(entityRef, type).hints(hints);
+        }
+
+        @Override
+        public Mono<T> one() {
+            return operations.selectOne(entity);
+        }
+
+        @Override
+        @NonNull
+        public Flux<T> all() {
+            return operations.select(entity);
+        }
+
+        @Override
+        @NonNull
+        public Flux<T> stream(int fetchSize) {
+            Assert.isTrue(fetchSize > 0, "抓取数量必须大于0！");
+            return operations.stream(entity, fetchSize);
+        }
+
+        /**
+         * 忽略查询字段，查询数量
+         *
+         * @return 按当前sql执行户的条数
+         */
+        @Override
+        public Mono<Integer> count() {
+            return operations.selectOne(counting());
+        }
+
+        /**
+         * 分页查询，计数与列表查询同时订阅
+         * 构建器不是线程安全的，两条sql在调用线程渲染完毕后再订阅，避免并发渲染
+         *
+         * @param page 分页对象
+         * @return 返回的分页对象
+         */
+        @Override
+        @NonNull
+        public Mono<DataPage<T>> page(DataPage<T> page) {
+            BoundSQLEntity<Integer> counting = counting().materialize();
+            BoundSQLEntity<T> paged = entity.paged(page).materialize();
+            // 任意一方失败时，zip会取消另一方
+            return Mono.zip(operations.selectOne(counting), operations.select(paged).collectList())
+                    .map(tuple -> {
+                        page.setTotal(tuple.getT1());
+                        page.setList(tuple.getT2());
+                        return page;
+                    });
+        }
+
+        /**
+         * @return 计数sql实体
+         */
+        private BoundSQLEntity<Integer> counting() {
+            return BoundSQLEntity.of(countRef, Integer.class).hints(hints);
+        }
+
+        @Override
+        @NonNull
+        public Mono<CursorPage<T>> seek(String cursor, int size) {
+            return operations.select(seeking(cursor, size))
+                    .collectList()
+                    .map(list -> keyset.page(list, size));
+        }
+
+        @Override
+        public Mono<Long> execute() {
+            return operations.execute(entity);
+        }
+
+        /**
+         * 批量执行，sql只渲染一次，参数在到达时逐组校验并转换
+         *
+         * @param parameters  多组参数
+         * @param batchSize   每批的数量
+         * @param concurrency 同时执行的批次数量
+         * @return 每组参数对应的更新行数
+         */
+        @Override
+        @NonNull
+        public Flux<Long> executeBatch(Publisher<Object[]> parameters, int batchSize, int concurrency) {
+            Assert.isTrue(batchSize > 0, "批次大小必须大于0！");
+            Assert.isTrue(concurrency > 0, "并发数必须大于0！");
+            int count = entity.getParameters().length;
+            return operations.executeBatch(entity, Flux.from(parameters).map(values -> convert(values, count)),
+                    batchSize, concurrency);
+        }
+    }
+
+    /**
+     * 构建游标分页的sql实体，多查询一行用于判断是否存在下一页
+     *
+     * @param cursor 游标
+     * @param size   分页大小
+     * @return sql实体
+     */
+    private BoundSQLEntity<T> seeking(String cursor, int size) {
+        Assert.notNull(keyset, "游标分页需要指定排序字段，且不能包含分组、limit和offset！");
+        Assert.isTrue(size > 0, "分页大小必须大于0！");
+        keyset.validate(type);
+        return BoundSQLEntity.of(keyset.entity(entityRef, cursor, size + 1), type).hints(hints);
+    }
+
+    /**
+     * 校验参数数量并转换为可绑定的值
+     *
+     * @param values 一组参数
+     * @param count  需要的数量
+     * @return 转换结果
+     */
+    private static Object[] convert(Object[] values, int count) {
+        Assert.isTrue(null != values && values.length == count,
+                "参数数量不匹配，需要" + count + "个，实际" + (null == values ? 0 : values.length) + "个！");
+        Object[] row = new Object[count];
+        for (int i = 0; i < count; i++) {
+            row[i] = ParameterUtils.convert(values[i]);
+        }
+        return row;
+    }
+}
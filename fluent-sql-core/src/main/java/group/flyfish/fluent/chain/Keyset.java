@@ -0,0 +1,287 @@
+package group.flyfish.fluent.chain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import group.flyfish.fluent.entity.CursorPage;
+import group.flyfish.fluent.entity.SQLEntity;
+import group.flyfish.fluent.utils.data.ObjectMappers;
+import group.flyfish.fluent.utils.data.ParameterUtils;
+import group.flyfish.fluent.utils.data.PropertyReaders;
+import group.flyfish.fluent.utils.sql.ColumnRef;
+import group.flyfish.fluent.utils.sql.EntityMetadata;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 游标分页（keyset）
+ * 以上一页最后一行的排序字段作为起点，生成 WHERE (a, b) > (?, ?) ORDER BY a, b LIMIT ?，
+ * 数据库沿索引直接定位，不再扫描并丢弃前面的行
+ * <p>
+ * 排序字段的组合需要唯一且不为空，通常以主键作为最后一个排序字段
+ *
+ * @author wangyu
+ */
+final class Keyset {
+
+    private final List<OrderImpl> keys;
+
+    private final List<ColumnRef> refs;
+
+    // 排序方向是否一致，一致时使用行值比较
+    private final boolean uniform;
+
+    // 首页sql，仅追加LIMIT
+    private final Supplier<String> firstSql;
+
+    // 后续页sql，追加定位条件和LIMIT
+    private final Supplier<String> nextSql;
+
+    Keyset(List<OrderImpl> keys, Supplier<String> firstSql, Supplier<String> nextSql) {
+        this.keys = keys;
+        this.refs = keys.stream().map(key -> key.field().getColumnRef()).toList();
+        this.uniform = keys.stream().allMatch(key -> key.descending() == keys.get(0).descending());
+        this.firstSql = firstSql;
+        this.nextSql = nextSql;
+    }
+
+    /**
+     * 写入定位条件，方向一致时为 (a, b) > (?, ?)，否则展开为 a > ? OR (a = ? AND b < ?)
+     *
+     * @param sb   缓冲区
+     * @param keys 排序字段
+     */
+    static void appendPredicate(StringBuilder sb, List<OrderImpl> keys) {
+        boolean descending = keys.get(0).descending();
+        if (keys.stream().allMatch(key -> key.descending() == descending)) {
+            if (keys.size() == 1) {
+                sb.append(keys.get(0).field().getName()).append(descending ? " < ?" : " > ?");
+                return;
+            }
+            sb.append('(');
+            for (int i = 0; i < keys.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(keys.get(i).field().getName());
+            }
+            sb.append(descending ? ") < (" : ") > (");
+            for (int i = 0; i < keys.size(); i++) {
+                sb.append(i > 0 ? ", ?" : "?");
+            }
+            sb.append(')');
+            return;
+        }
+        sb.append('(');
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) {
+                sb.append(" OR ");
+            }
+            sb.append('(');
+            for (int j = 0; j < i; j++) {
+                sb.append(keys.get(j).field().getName()).append(" = ? AND ");
+            }
+            sb.append(keys.get(i).field().getName()).append(keys.get(i).descending() ? " < ?" : " > ?").append(')');
+        }
+        sb.append(')');
+    }
+
+    /**
+     * 渲染并固定sql，用于编译后的语句
+     *
+     * @return 结果
+     */
+    Keyset compile() {
+        String first = firstSql.get();
+        String next = nextSql.get();
+        return new Keyset(keys, () -> first, () -> next);
+    }
+
+    /**
+     * 构建指定游标的sql实体，参数依次为原始参数、定位参数和行数
+     *
+     * @param base   原始sql实体
+     * @param cursor 游标，为空时查询首页
+     * @param limit  行数
+     * @return 结果
+     */
+    Supplier<SQLEntity> entity(Supplier<SQLEntity> base, String cursor, int limit) {
+        Object[] after = null == cursor ? new Object[0] : expand(decode(cursor));
+        Supplier<String> sql = null == cursor ? firstSql : nextSql;
+        return () -> {
+            SQLEntity entity = base.get();
+            return SQLEntity.of(sql, () -> {
+                Object[] parameters = entity.getParameters();
+                Object[] merged = Arrays.copyOf(parameters, parameters.length + after.length + 1);
+                System.arraycopy(after, 0, merged, parameters.length, after.length);
+                merged[merged.length - 1] = limit;
+                return merged;
+            });
+        };
+    }
+
+    /**
+     * 在执行查询前校验结果类型能否读出全部排序字段，避免查询完成后才因游标无法生成而失败
+     * 实体、dto和记录按属性名读取，需要提供同名的访问器、getter或字段；map行的键取决于选择项的别名，只能在读取时校验
+     *
+     * @param type 结果类型
+     */
+    void validate(Class<?> type) {
+        if (Map.class.isAssignableFrom(type)) {
+            return;
+        }
+        for (ColumnRef ref : refs) {
+            Assert.isTrue(PropertyReaders.isReadable(type, ref.property()), "结果类型" + type.getName() + "中不存在排序字段" +
+                    ref.property() + "，无法生成游标！请在结果类型中声明同名属性");
+        }
+    }
+
+    /**
+     * 截取一页，多查出的一行用于判断是否存在下一页
+     *
+     * @param rows 查询结果，最多 size + 1 行
+     * @param size 分页大小
+     * @return 分页结果
+     */
+    <T> CursorPage<T> page(List<T> rows, int size) {
+        if (rows.size() <= size) {
+            return CursorPage.of(rows, size, null);
+        }
+        List<T> list = new ArrayList<>(rows.subList(0, size));
+        return CursorPage.of(list, size, encode(list.get(size - 1)));
+    }
+
+    /**
+     * 按定位条件的形式展开参数
+     *
+     * @param values 排序字段的值
+     * @return 参数
+     */
+    private Object[] expand(Object[] values) {
+        if (uniform) {
+            return values;
+        }
+        Object[] expanded = new Object[values.length * (values.length + 1) / 2];
+        int index = 0;
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j <= i; j++) {
+                expanded[index++] = values[j];
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * 将一行的排序字段编码为游标
+     *
+     * @param row 行
+     * @return 游标
+     */
+    private String encode(Object row) {
+        String[] values = new String[refs.size()];
+        for (int i = 0; i < values.length; i++) {
+            ColumnRef ref = refs.get(i);
+            Object value = read(row, ref);
+            Assert.notNull(value, "排序字段" + ref.property() + "的值为空，无法生成游标！");
+            if (value instanceof Timestamp) {
+                values[i] = value.toString();
+            } else if (value instanceof Date) {
+                values[i] = String.valueOf(((Date) value).getTime());
+            } else if (value instanceof Enum) {
+                values[i] = ((Enum<?>) value).name();
+            } else {
+                values[i] = value.toString();
+            }
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(ObjectMappers.shared().writeValueAsBytes(values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("游标序列化失败！", e);
+        }
+    }
+
+    /**
+     * 解码游标，按排序字段的声明类型还原值
+     *
+     * @param cursor 游标
+     * @return 排序字段的值
+     */
+    private Object[] decode(String cursor) {
+        String[] values;
+        try {
+            values = ObjectMappers.shared().readValue(Base64.getUrlDecoder().decode(cursor), String[].class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的游标！", e);
+        }
+        Assert.isTrue(null != values && values.length == refs.size(), "游标与当前排序字段不匹配！");
+        Object[] result = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ColumnRef ref = refs.get(i);
+            Class<?> type = EntityMetadata.of(ref.entityClass()).getType(ref.property());
+            result[i] = ParameterUtils.convert(parse(values[i], type));
+        }
+        return result;
+    }
+
+    /**
+     * 从结果行读取排序字段
+     *
+     * @param row 行，实体、记录或map
+     * @param ref 列引用
+     * @return 值
+     */
+    private static Object read(Object row, ColumnRef ref) {
+        if (row instanceof Map<?, ?> map) {
+            if (map.containsKey(ref.column())) {
+                return map.get(ref.column());
+            }
+            Assert.isTrue(map.containsKey(ref.property()), "结果中不存在排序字段" + ref.property() +
+                    "，无法生成游标！请以列名或属性名作为该字段的别名");
+            return map.get(ref.property());
+        }
+        return PropertyReaders.read(row, ref.property());
+    }
+
+    /**
+     * 将文本还原为声明类型，未识别的类型保留文本
+     *
+     * @param text 文本
+     * @param type 声明类型
+     * @return 值
+     */
+    @SuppressWarnings("unchecked")
+    private static Object parse(String text, Class<?> type) {
+        if (null == text || null == type || String.class == type || type.isEnum()) {
+            return text;
+        }
+        Class<?> wrapped = ClassUtils.resolvePrimitiveIfNecessary(type);
+        if (Number.class.isAssignableFrom(wrapped)) {
+            return NumberUtils.parseNumber(text, (Class<Number>) wrapped);
+        }
+        if (Boolean.class == wrapped) {
+            return Boolean.valueOf(text);
+        }
+        if (Timestamp.class == type) {
+            return Timestamp.valueOf(text);
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            Constructor<?> constructor = ClassUtils.getConstructorIfAvailable(type, long.class);
+            long millis = Long.parseLong(text);
+            return null == constructor ? new Date(millis) : BeanUtils.instantiateClass(constructor, millis);
+        }
+        if (UUID.class == type) {
+            return UUID.fromString(text);
+        }
+        // java.time中的类型均提供 parse(CharSequence)，与 toString 的格式对应
+        Method parse = ClassUtils.getStaticMethod(type, "parse", CharSequence.class);
+        return null == parse ? text : ReflectionUtils.invokeMethod(parse, null, text);
+    }
+}
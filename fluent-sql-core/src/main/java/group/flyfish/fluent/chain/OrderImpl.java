@@ -1,6 +1,7 @@
 package group.flyfish.fluent.chain;
 
 import group.flyfish.fluent.utils.sql.SFunction;
+import group.flyfish.fluent.utils.sql.SQLShape;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -27,6 +28,20 @@ final class OrderImpl implements Order, SQLSegment {
         return this;
     }
 
+    /**
+     * @return 排序字段
+     */
+    SFunction<?, ?> field() {
+        return field;
+    }
+
+    /**
+     * @return 是否倒序
+     */
+    boolean descending() {
+        return "desc".equals(order);
+    }
+
     /**
      * @return 得到sql片段
      */
@@ -34,4 +49,23 @@ final class OrderImpl implements Order, SQLSegment {
     public String get() {
         return String.join(" ", field.getName(), order);
     }
+
+    /**
+     * 直接写入缓冲区
+     *
+     * @param sb 缓冲区
+     */
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append(field.getName()).append(' ').append(order);
+    }
+
+    @Override
+    public boolean describe(SQLShape shape) {
+        if (!field.describe(shape)) {
+            return false;
+        }
+        shape.add(order);
+        return true;
+    }
 }
@@ -1,6 +1,7 @@
 package group.flyfish.fluent.chain;
 
 import group.flyfish.fluent.chain.common.PreSqlChain;
+import group.flyfish.fluent.insert.Insert;
 import group.flyfish.fluent.operations.FluentSQLOperations;
 import group.flyfish.fluent.operations.ReactiveFluentSQLOperations;
 import group.flyfish.fluent.update.Update;
@@ -56,6 +57,17 @@ public interface SQL {
         return SQLFactory.produce().update(clazz);
     }
 
+    /**
+     * 插入表起手
+     *
+     * @param clazz 表
+     * @param <T>   实体泛型
+     * @return 插入链式
+     */
+    static <T> Insert<T> insert(Class<T> clazz) {
+        return SQLFactory.produce().insert(clazz);
+    }
+
     /**
      * 绑定数据源上下文，可自由切换实现
      *
@@ -3,17 +3,18 @@ package group.flyfish.fluent.chain;
 import group.flyfish.fluent.chain.common.AfterJoinSqlChain;
 import group.flyfish.fluent.chain.common.HandleSqlChain;
 import group.flyfish.fluent.chain.common.PreSqlChain;
-import group.flyfish.fluent.chain.execution.BoundEntitySpec;
 import group.flyfish.fluent.chain.execution.BoundProxy;
-import group.flyfish.fluent.chain.execution.ReactiveBoundEntitySpec;
+import group.flyfish.fluent.chain.execution.CompiledStatement;
 import group.flyfish.fluent.chain.select.AfterOrderSqlChain;
 import group.flyfish.fluent.chain.select.AfterWhereSqlChain;
+import group.flyfish.fluent.chain.select.FetchSqlChain;
 import group.flyfish.fluent.chain.select.PieceSqlChain;
 import group.flyfish.fluent.chain.update.AfterSetSqlChain;
 import group.flyfish.fluent.debug.FluentSqlDebugger;
-import group.flyfish.fluent.entity.BoundSQLEntity;
-import group.flyfish.fluent.entity.DataPage;
+import group.flyfish.fluent.entity.ExecutionHints;
 import group.flyfish.fluent.entity.SQLEntity;
+import group.flyfish.fluent.insert.Insert;
+import group.flyfish.fluent.insert.InsertImpl;
 import group.flyfish.fluent.operations.FluentSQLOperations;
 import group.flyfish.fluent.operations.ReactiveFluentSQLOperations;
 import group.flyfish.fluent.query.JoinCandidate;
@@ -21,19 +22,18 @@ import group.flyfish.fluent.query.Parameterized;
 import group.flyfish.fluent.query.Query;
 import group.flyfish.fluent.update.Update;
 import group.flyfish.fluent.update.UpdateImpl;
+import group.flyfish.fluent.utils.cache.ConcurrentCache;
 import group.flyfish.fluent.utils.context.AliasComposite;
 import group.flyfish.fluent.utils.data.ParameterUtils;
+import group.flyfish.fluent.utils.sql.ColumnRef;
 import group.flyfish.fluent.utils.sql.ConcatSegment;
 import group.flyfish.fluent.utils.sql.EntityNameUtils;
+import group.flyfish.fluent.utils.sql.SQLShape;
 import group.flyfish.fluent.utils.sql.SqlNameUtils;
-import lombok.RequiredArgsConstructor;
-import org.springframework.lang.NonNull;
 import org.springframework.util.Assert;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -52,8 +52,11 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     // 共享的异步操作
     private static ReactiveFluentSQLOperations SHARED_REACTIVE_OPERATIONS;
 
-    // 是否正在计数
-    private final AtomicBoolean counting = new AtomicBoolean(false);
+    // 渲染结果缓存，以结构指纹为键，结构相同的查询直接复用sql
+    private static final ConcurrentCache<Object, String> RENDERED = ConcurrentCache.of(4096);
+
+    // 当前的渲染模式
+    private final AtomicReference<RenderMode> mode = new AtomicReference<>(RenderMode.QUERY);
 
     // 参数map，有序
     private final List<Object> parameters = new ArrayList<>();
@@ -64,8 +67,42 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     // 主表class，默认是第一个from的表为主表
     private Class<?> primaryClass;
 
-    // sql实体引用，区分计数sql
-    private final Supplier<SQLEntity> entityRef = wrap(this::entity, counting::get);
+    // 执行提示
+    private ExecutionHints hints = ExecutionHints.NONE;
+
+    // 结构指纹，随链式调用逐步记录
+    private final SQLShape shape = new SQLShape();
+
+    // sql实体引用
+    private final Supplier<SQLEntity> entityRef = wrap(() -> entity(RenderMode.QUERY));
+
+    // 计数sql实体引用
+    private final Supplier<SQLEntity> countRef = wrap(() -> entity(RenderMode.COUNT));
+
+    // 游标分页的排序字段
+    private final List<OrderImpl> keys = new ArrayList<>();
+
+    // 游标分页引用
+    private final Supplier<Keyset> keysetRef = wrap(() -> new Keyset(keys,
+            wrap(() -> sql(RenderMode.SEEK_FIRST)), wrap(() -> sql(RenderMode.SEEK_NEXT))));
+
+    // 是否包含where条件
+    private boolean filtered;
+
+    // 是否支持游标分页，包含分组、limit和offset时不支持
+    private boolean seekable = true;
+
+    // 是否包含分组
+    private boolean grouped;
+
+    // where条件
+    private final List<Query> filters = new ArrayList<>();
+
+    // 连接的表
+    private final List<JoinPart> joins = new ArrayList<>();
+
+    // 渲染计数sql时省略的连接，首次使用时计算
+    private Set<JoinPart> omitted;
 
     // 参数引用
     private final Supplier<Object[]> parametersRef = wrap(this::parsedParameters);
@@ -88,6 +125,20 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
         SHARED_REACTIVE_OPERATIONS = operations;
     }
 
+    /**
+     * @return 共享的jdbc操作
+     */
+    static FluentSQLOperations operations() {
+        return SHARED_OPERATIONS;
+    }
+
+    /**
+     * @return 共享的r2dbc操作
+     */
+    static ReactiveFluentSQLOperations reactiveOperations() {
+        return SHARED_REACTIVE_OPERATIONS;
+    }
+
     /**
      * 查询起手（表达式/聚合）
      *
@@ -100,8 +151,11 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
             if (!selections.isEmpty()) {
                 selections.add(() -> ",");
             }
-            selections.add(() -> Arrays.stream(segments)
-                    .map(SQLSegment::get).collect(Collectors.joining(",")));
+            selections.add(SQLSegment.appending(sb -> SQLSegment.join(sb, segments, ",")));
+            shape.add("SELECT");
+            for (SQLSegment segment : segments) {
+                shape.defer(segment);
+            }
         }
         // 首个项，添加SELECT
         if (this.segments.isEmpty()) {
@@ -120,6 +174,7 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     public <T> Update update(Class<T> clazz) {
         return new UpdateImpl(update -> {
             if (withoutParameter(update)) return this;
+            shape.add("UPDATE").add(clazz).defer(update);
             return this.concat("UPDATE")
                     .concat(() -> EntityNameUtils.getTableName(clazz))
                     .concat("SET")
@@ -127,6 +182,17 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
         });
     }
 
+    /**
+     * 插入起手，多行插入按块拆分为独立的语句执行，不经过链式渲染
+     *
+     * @param clazz 具体表
+     * @return 链式调用
+     */
+    @Override
+    public <T> Insert<T> insert(Class<T> clazz) {
+        return new InsertImpl<>(clazz, SQLImpl::operations);
+    }
+
     /**
      * 从表里查
      *
@@ -160,9 +226,10 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     public HandleSqlChain from(Class<?> type, String alias) {
         this.primaryClass = type;
         String key = type.getCanonicalName();
+        shape.add("FROM").add(type).add(alias);
         return this
                 .ctxPut(ctx -> ctx.put(key, AliasComposite.add(type, alias)))
-                .concat(this::applySelections)
+                .concat(SQLSegment.appending(this::applySelections))
                 .concat("FROM")
                 .concat(() -> EntityNameUtils.getTableName(type))
                 .concat(() -> SqlNameUtils.wrap(this.ctx(key)));
@@ -177,9 +244,10 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
      */
     public HandleSqlChain from(String table, String alias) {
         this.primaryClass = Map.class; // 对于字符串表，结果映射通常需要 as(Class) 指定
+        shape.add("FROM").add(table).add(alias);
         return this
                 .ctxPut(ctx -> ctx.put(table, AliasComposite.add(table, alias)))
-                .concat(this::applySelections)
+                .concat(SQLSegment.appending(this::applySelections))
                 .concat("FROM")
                 .concat(() -> SqlNameUtils.wrap(table))
                 .concat(() -> SqlNameUtils.wrap(this.ctx(table)));
@@ -187,20 +255,19 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
 
     /**
      * 添加选择项的逻辑
+     *
+     * @param sb 缓冲区
      */
-    private String applySelections() {
+    private void applySelections(StringBuilder sb) {
         // 判断渲染模式
-        if (counting.get()) {
-            // 设置后立即回正
-            counting.set(false);
-            return "COUNT(1)";
-        }
-        if (selections.isEmpty()) {
+        if (mode.get() == RenderMode.COUNT && !grouped) {
+            sb.append("COUNT(1)");
+        } else if (selections.isEmpty()) {
             // 选择项为空，查询全部字段
-            return "*";
+            sb.append('*');
         } else {
             // 选择项不为空，查询指定字段
-            return selections.stream().map(SQLSegment::get).collect(Collectors.joining());
+            SQLSegment.join(sb, selections, "");
         }
     }
 
@@ -215,18 +282,33 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     @Override
     public AfterJoinSqlChain join(JoinCandidate type, Class<?> clazz, String alias) {
         String key = clazz.getCanonicalName();
+        shape.add(type).add(clazz).add(alias);
+        JoinPart part = new JoinPart(type, clazz, EntityNameUtils.getTableName(clazz), key);
+        joins.add(part);
         return ctxPut(ctx -> ctx.put(key, AliasComposite.add(clazz, alias)))
-                .concat(type)
-                .concat(() -> EntityNameUtils.getTableName(clazz))
-                .concat(() -> SqlNameUtils.wrap(ctx(key)));
+                .concat(joined(part, type, () -> EntityNameUtils.getTableName(clazz), () -> SqlNameUtils.wrap(ctx(key))));
     }
 
     @Override
     public AfterJoinSqlChain join(JoinCandidate type, String table, String alias) {
+        shape.add(type).add(table).add(alias);
+        JoinPart part = new JoinPart(type, null, table, table);
+        joins.add(part);
         return ctxPut(ctx -> ctx.put(table, AliasComposite.add(table, alias)))
-                .concat(type)
-                .concat(() -> SqlNameUtils.wrap(table))
-                .concat(() -> SqlNameUtils.wrap(ctx(table)));
+                .concat(joined(part, type, () -> SqlNameUtils.wrap(table), () -> SqlNameUtils.wrap(ctx(table))));
+    }
+
+    /**
+     * 声明最近一次连接为对一关系
+     *
+     * @return 链式调用
+     */
+    @Override
+    public AfterJoinSqlChain toOne() {
+        Assert.isTrue(!joins.isEmpty(), "对一关系需要在连接之后声明！");
+        joins.get(joins.size() - 1).toOne = true;
+        shape.add("TO ONE");
+        return this;
     }
 
     /**
@@ -238,7 +320,14 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     @Override
     public HandleSqlChain on(Query query) {
         if (withoutParameter(query)) return this;
-        return concat("ON").concat(query);
+        shape.add("ON").defer(query);
+        JoinPart part = joins.isEmpty() ? null : joins.get(joins.size() - 1);
+        if (null != part) {
+            part.on = query;
+            // 参数在构建时已加入参数表，省略该连接会导致参数与占位符数量不一致
+            part.bound = !query.getParameters().isEmpty();
+        }
+        return concat(joined(part, () -> "ON", query));
     }
 
     /**
@@ -260,7 +349,7 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     @SuppressWarnings("unchecked")
     public <T> BoundProxy<T> fetch() {
         // 通过主类构建实体
-        return new DefaultBoundProxy<>((Class<T>) primaryClass);
+        return as((Class<T>) primaryClass);
     }
 
     /**
@@ -272,7 +361,19 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     @Override
     public AfterWhereSqlChain matching(Query query) {
         if (withoutParameter(query)) return this;
-        return concat("WHERE").concat(query);
+        shape.add("WHERE").defer(query);
+        filters.add(query);
+        filtered = true;
+        return concat("WHERE").concat(SQLSegment.appending(sb -> {
+            // 游标定位条件以AND追加在后，原条件需要加括号
+            if (mode.get() == RenderMode.SEEK_NEXT) {
+                sb.append('(');
+                query.appendTo(sb);
+                sb.append(')');
+            } else {
+                query.appendTo(sb);
+            }
+        }));
     }
 
     /**
@@ -284,10 +385,28 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     @Override
     public AfterOrderSqlChain order(Order... orders) {
         if (null != orders && orders.length != 0) {
-            return concat("ORDER BY")
-                    .concat(() -> Arrays.stream(orders).map(SQLSegment::get)
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.joining(",")));
+            shape.add("ORDER BY");
+            for (Order order : orders) {
+                shape.defer(order);
+                if (order instanceof OrderImpl) {
+                    keys.add((OrderImpl) order);
+                } else {
+                    seekable = false;
+                }
+            }
+            // 计数时排序没有意义，直接省略
+            return concat(SQLSegment.appending(this::applySeek))
+                    .concat(SQLSegment.appending(sb -> {
+                        if (mode.get() != RenderMode.COUNT) {
+                            sb.append("ORDER BY ");
+                            SQLSegment.join(sb, orders, ",");
+                        }
+                    }))
+                    .concat(SQLSegment.appending(sb -> {
+                        if (seeking()) {
+                            sb.append("LIMIT ?");
+                        }
+                    }));
         }
         return this;
     }
@@ -295,9 +414,14 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     @Override
     public AfterWhereSqlChain groupBy(SQLSegment... fields) {
         if (null != fields && fields.length > 0) {
+            seekable = false;
+            grouped = true;
+            shape.add("GROUP BY");
+            for (SQLSegment field : fields) {
+                shape.defer(field);
+            }
             return concat("GROUP BY")
-                    .concat(() -> Arrays.stream(fields).map(SQLSegment::get)
-                            .collect(Collectors.joining(",")));
+                    .concat(SQLSegment.appending(sb -> SQLSegment.join(sb, fields, ",")));
         }
         return this;
     }
@@ -305,10 +429,21 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     @Override
     public AfterWhereSqlChain groupBy(String... columns) {
         if (null != columns && columns.length > 0) {
+            seekable = false;
+            grouped = true;
+            shape.add("GROUP BY");
+            for (String column : columns) {
+                shape.add(column);
+            }
             return concat("GROUP BY")
-                    .concat(() -> Arrays.stream(columns)
-                            .map(SqlNameUtils::wrap)
-                            .collect(Collectors.joining(",")));
+                    .concat(SQLSegment.appending(sb -> {
+                        for (int i = 0; i < columns.length; i++) {
+                            if (i > 0) {
+                                sb.append(',');
+                            }
+                            sb.append(SqlNameUtils.wrap(columns[i]));
+                        }
+                    }));
         }
         return this;
     }
@@ -316,10 +451,25 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     @Override
     public AfterWhereSqlChain having(Query query) {
         if (withoutParameter(query)) return this;
+        seekable = false;
+        grouped = true;
+        shape.add("HAVING").defer(query);
         return concat("HAVING").concat(query);
     }
 
 
+    /**
+     * 指定执行提示，不影响sql的渲染
+     *
+     * @param hints 执行提示
+     * @return 链式调用
+     */
+    @Override
+    public FetchSqlChain hints(ExecutionHints... hints) {
+        this.hints = this.hints.merge(ExecutionHints.of(hints));
+        return this;
+    }
+
     /**
      * 获取实体，做下一步的事情
      *
@@ -327,23 +477,138 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
      */
     @Override
     public <T> BoundProxy<T> as(Class<T> type) {
-        return new DefaultBoundProxy<>(type);
+        return new DefaultBoundProxy<>(entityRef, countRef, type, hints, keyset());
+    }
+
+    /**
+     * 使用主表编译为不可变语句
+     *
+     * @return 编译结果
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompiledStatement<T> compile() {
+        return compile((Class<T>) primaryClass);
+    }
+
+    /**
+     * 编译为不可变语句，sql和计数sql在此处一次性渲染完成
+     *
+     * @param type 具体结果类型
+     * @return 编译结果
+     */
+    @Override
+    public <T> CompiledStatement<T> compile(Class<T> type) {
+        SQLEntity entity = entityRef.get();
+        Keyset keyset = keyset();
+        return new CompiledStatementImpl<>(entity.getSql(), countRef.get().getSql(), entity.getParameters(), type, hints,
+                null == keyset ? null : keyset.compile());
     }
 
     /**
      * 构建sql
      *
+     * @param mode 渲染模式
      * @return 构建结果
      */
-    private String sql() {
-        String sql = this.get();
-        // 拼接sql
-        if (FluentSqlDebugger.enabled()) {
-            System.out.println("prepared sql: " + sql);
-            System.out.println("prepared args:" + parameters.stream().map(ParameterUtils::convert).map(String::valueOf)
-                    .collect(Collectors.joining(",")));
+    private String sql(RenderMode mode) {
+        this.mode.set(mode);
+        try {
+            String sql = render(mode);
+            // 拼接sql
+            if (FluentSqlDebugger.enabled()) {
+                System.out.println("prepared sql: " + sql);
+                System.out.println("prepared args:" + parameters.stream().map(ParameterUtils::convert).map(String::valueOf)
+                        .collect(Collectors.joining(",")));
+            }
+            return sql;
+        } finally {
+            this.mode.set(RenderMode.QUERY);
         }
-        return sql;
+    }
+
+    /**
+     * 渲染sql，结构指纹有效时优先从缓存获取
+     *
+     * @param mode 渲染模式
+     * @return 渲染结果
+     */
+    private String render(RenderMode mode) {
+        Object key = shape.key(mode);
+        if (null == key) {
+            return text(mode);
+        }
+        try {
+            return RENDERED.computeIfAbsent(key, k -> text(mode));
+        } finally {
+            // 命中缓存时不经过渲染，同样需要清理构建期登记的别名
+            AliasComposite.flush();
+        }
+    }
+
+    /**
+     * 按模式渲染sql文本
+     * 计数时省略排序和未被引用的对一左连接，包含分组时以子查询包裹后计数
+     *
+     * @param mode 渲染模式
+     * @return 渲染结果
+     */
+    private String text(RenderMode mode) {
+        if (mode != RenderMode.COUNT) {
+            return this.get();
+        }
+        if (grouped) {
+            return "SELECT COUNT(*) FROM (" + this.get() + ") count_result";
+        }
+        try {
+            return this.get();
+        } finally {
+            omitted = null;
+        }
+    }
+
+    /**
+     * 构建连接片段，计数时可以整体省略
+     *
+     * @param part     连接
+     * @param segments 片段
+     * @return 结果
+     */
+    private SQLSegment joined(JoinPart part, SQLSegment... segments) {
+        return SQLSegment.appending(sb -> {
+            if (null == part || mode.get() != RenderMode.COUNT || grouped || !omitted().contains(part)) {
+                SQLSegment.join(sb, segments, " ");
+            }
+        });
+    }
+
+    /**
+     * 计算计数时可以省略的连接
+     * 对一的左连接不会改变主表的行数，未被where条件和其他保留连接的on条件引用时可以省略
+     * 包含右连接时无法保证，全部保留；on条件中带有绑定参数的连接同样保留
+     *
+     * @return 结果
+     */
+    private Set<JoinPart> omitted() {
+        if (null != omitted) {
+            return omitted;
+        }
+        Set<JoinPart> candidates = new HashSet<>();
+        if (joins.stream().noneMatch(join -> join.type == JoinCandidate.RIGHT_JOIN)) {
+            for (JoinPart join : joins) {
+                if (join.toOne && !join.bound && join.type == JoinCandidate.LEFT_JOIN
+                        && filters.stream().noneMatch(filter -> join.referencedBy(filter, ctx(join.key)))) {
+                    candidates.add(join);
+                }
+            }
+        }
+        // 被保留的连接引用的表同样需要保留，直到结果稳定
+        boolean changed = !candidates.isEmpty();
+        while (changed) {
+            changed = candidates.removeIf(candidate -> joins.stream().anyMatch(join -> join != candidate
+                    && !candidates.contains(join) && candidate.referencedBy(join.on, ctx(candidate.key))));
+        }
+        return omitted = candidates;
     }
 
     /**
@@ -372,150 +637,137 @@ final class SQLImpl extends ConcatSegment<SQLImpl> implements SQLOperations, Pre
     /**
      * 将本实体转换为sql实体
      *
+     * @param mode 渲染模式
      * @return 转换结果
      */
-    private SQLEntity entity() {
-        return SQLEntity.of(wrap(this::sql), parametersRef);
+    private SQLEntity entity(RenderMode mode) {
+        return SQLEntity.of(wrap(() -> sql(mode)), parametersRef);
+    }
+
+    /**
+     * @return 游标分页，未指定排序或不支持时返回null
+     */
+    private Keyset keyset() {
+        return seekable && !keys.isEmpty() ? keysetRef.get() : null;
+    }
+
+    /**
+     * @return 是否正在渲染游标分页
+     */
+    private boolean seeking() {
+        RenderMode current = mode.get();
+        return current == RenderMode.SEEK_FIRST || current == RenderMode.SEEK_NEXT;
+    }
+
+    /**
+     * 添加游标定位条件，仅在渲染后续页时生效
+     *
+     * @param sb 缓冲区
+     */
+    private void applySeek(StringBuilder sb) {
+        if (mode.get() == RenderMode.SEEK_NEXT) {
+            sb.append(filtered ? "AND " : "WHERE ");
+            Keyset.appendPredicate(sb, keys);
+        }
     }
 
     @Override
     public PieceSqlChain limit(int count) {
+        seekable = false;
+        shape.add("LIMIT").add(count);
         return concat("LIMIT").concat(String.valueOf(count));
     }
 
     @Override
     public PieceSqlChain offset(int rows) {
+        seekable = false;
+        shape.add("OFFSET").add(rows);
         return concat("OFFSET").concat(String.valueOf(rows));
     }
 
-    @RequiredArgsConstructor
-    private class DefaultBoundProxy<T> implements BoundProxy<T> {
-
-        private final Class<T> type;
-
-        @Override
-        public BoundEntitySpec<T> block() {
-            return new DefaultBoundEntitySpec<>(type);
-        }
-
-        @Override
-        public ReactiveBoundEntitySpec<T> reactive() {
-            return new DefaultReactiveBoundEntitySpec<>(type);
-        }
-    }
-
     /**
-     * 默认的绑定实体
-     *
-     * @param <T>
+     * 渲染模式
      */
-    private class DefaultBoundEntitySpec<T> implements BoundEntitySpec<T> {
-
-        private final BoundSQLEntity<T> entity;
-
-        private DefaultBoundEntitySpec(Class<T> type) {
-            Assert.notNull(SHARED_OPERATIONS, "未指定执行数据源！");
-            this.entity = BoundSQLEntity.of(entityRef, type);
-        }
-
-        @Override
-        public T one() {
-            return SHARED_OPERATIONS.selectOne(entity);
-        }
+    private enum RenderMode {
 
-        @Override
-        @NonNull
-        public List<T> all() {
-            return SHARED_OPERATIONS.select(entity);
-        }
+        // 普通查询
+        QUERY,
 
-        /**
-         * 忽略查询字段，查询当前条件下的数量
-         *
-         * @return 数量
-         */
-        @Override
-        public int count() {
-            counting.set(true);
-            Integer result = SHARED_OPERATIONS.selectOne(BoundSQLEntity.of(entityRef, Integer.class));
-            return null == result ? 0 : result;
-        }
+        // 计数
+        COUNT,
 
-        @Override
-        @NonNull
-        public DataPage<T> page(DataPage<T> page) {
-            int count = count();
-            List<T> list = SHARED_OPERATIONS.select(entity.paged(page));
-            page.setTotal(count);
-            page.setList(list);
-            return page;
-        }
+        // 游标分页首页
+        SEEK_FIRST,
 
-        @Override
-        public int execute() {
-            return SHARED_OPERATIONS.execute(entity);
-        }
+        // 游标分页后续页
+        SEEK_NEXT
     }
 
     /**
-     * 默认的异步绑定实体
-     *
-     * @param <T> 泛型
+     * 连接信息，用于计数时判断是否可以省略
      */
-    private class DefaultReactiveBoundEntitySpec<T> implements ReactiveBoundEntitySpec<T> {
+    private static final class JoinPart {
 
-        private final BoundSQLEntity<T> entity;
+        private final JoinCandidate type;
 
-        private DefaultReactiveBoundEntitySpec(Class<T> type) {
-            Assert.notNull(SHARED_REACTIVE_OPERATIONS, "未指定执行数据源！");
-            this.entity = BoundSQLEntity.of(entityRef, type);
-        }
+        // 实体类，字符串表为空
+        private final Class<?> entityClass;
 
-        @Override
-        public Mono<T> one() {
-            return SHARED_REACTIVE_OPERATIONS.selectOne(entity);
-        }
+        // 表名，不含包裹符号
+        private final String table;
 
-        @Override
-        @NonNull
-        public Flux<T> all() {
-            return SHARED_REACTIVE_OPERATIONS.select(entity);
-        }
+        // 上下文中别名的键
+        private final String key;
 
-        /**
-         * 忽略查询字段，查询数量
-         *
-         * @return 按当前sql执行户的条数
-         */
-        @Override
-        public Mono<Integer> count() {
-            counting.set(true);
-            return SHARED_REACTIVE_OPERATIONS.selectOne(BoundSQLEntity.of(entityRef, Integer.class));
+        // 是否为对一关系
+        private boolean toOne;
+
+        // 连接条件
+        private Query on;
+
+        // 连接条件是否带有绑定参数
+        private boolean bound;
+
+        private JoinPart(JoinCandidate type, Class<?> entityClass, String table, String key) {
+            this.type = type;
+            this.entityClass = entityClass;
+            this.table = unquote(table);
+            this.key = key;
         }
 
         /**
-         * 分页查询
+         * 条件中是否引用了当前连接的表，无法判断时视为引用
          *
-         * @param page 分页对象
-         * @return 返回的分页对象
+         * @param query 条件
+         * @param alias 别名
+         * @return 是否引用
          */
-        @Override
-        @NonNull
-        public Mono<DataPage<T>> page(DataPage<T> page) {
-            return count().flatMapMany(count -> {
-                        page.setTotal(count);
-                        return SHARED_REACTIVE_OPERATIONS.select(entity.paged(page));
-                    })
-                    .collectList()
-                    .map(list -> {
-                        page.setList(list);
-                        return page;
-                    });
+        private boolean referencedBy(Query query, String alias) {
+            if (null == query) {
+                return false;
+            }
+            SQLShape described = new SQLShape();
+            described.describe(query);
+            return described.anyMatch(part -> {
+                if (part instanceof ColumnRef ref) {
+                    return ref.entityClass() == entityClass
+                            || table.equals(unquote(EntityNameUtils.getTableName(ref.entityClass())));
+                }
+                if (part instanceof String column) {
+                    // 未限定表的字符串列无法确定归属
+                    int dot = column.indexOf('.');
+                    if (dot < 0) {
+                        return true;
+                    }
+                    String prefix = unquote(column.substring(0, dot));
+                    return prefix.equals(unquote(alias)) || prefix.equals(table);
+                }
+                return false;
+            });
         }
 
-        @Override
-        public Mono<Long> execute() {
-            return SHARED_REACTIVE_OPERATIONS.execute(entity);
+        private static String unquote(String identifier) {
+            return null == identifier ? "" : identifier.replace("`", "").replace("\"", "");
         }
     }
 }
@@ -1,6 +1,7 @@
 package group.flyfish.fluent.chain;
 
 import group.flyfish.fluent.chain.common.PreSqlChain;
+import group.flyfish.fluent.insert.Insert;
 import group.flyfish.fluent.update.Update;
 
 /**
@@ -25,4 +26,13 @@ public interface SQLOperations {
      * @return 链式调用
      */
     <T> Update update(Class<T> clazz);
+
+    /**
+     * 插入起手
+     *
+     * @param clazz 具体表
+     * @param <T>   泛型
+     * @return 链式调用
+     */
+    <T> Insert<T> insert(Class<T> clazz);
 }
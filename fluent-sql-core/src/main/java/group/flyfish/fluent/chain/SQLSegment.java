@@ -1,7 +1,10 @@
 package group.flyfish.fluent.chain;
 
+import group.flyfish.fluent.utils.sql.SQLShape;
 import group.flyfish.fluent.utils.sql.SqlNameUtils;
 
+import java.util.function.Consumer;
+
 /**
  * sql片段
  *
@@ -10,11 +13,105 @@ import group.flyfish.fluent.utils.sql.SqlNameUtils;
 @FunctionalInterface
 public interface SQLSegment {
 
+    /**
+     * 基于追加逻辑构建片段，渲染时直接写入共享的缓冲区
+     *
+     * @param appender 追加逻辑
+     * @return 片段
+     */
+    static SQLSegment appending(Consumer<StringBuilder> appender) {
+        return new SQLSegment() {
+
+            @Override
+            public String get() {
+                StringBuilder sb = new StringBuilder();
+                appender.accept(sb);
+                return sb.toString();
+            }
+
+            @Override
+            public void appendTo(StringBuilder sb) {
+                appender.accept(sb);
+            }
+        };
+    }
+
+    /**
+     * 以分隔符拼接多个片段到缓冲区，跳过空片段
+     *
+     * @param sb        缓冲区
+     * @param segments  片段
+     * @param delimiter 分隔符
+     */
+    static void join(StringBuilder sb, Iterable<? extends SQLSegment> segments, String delimiter) {
+        boolean first = true;
+        for (SQLSegment segment : segments) {
+            first = append(sb, segment, delimiter, first);
+        }
+    }
+
+    /**
+     * 以分隔符拼接多个片段到缓冲区，跳过空片段
+     *
+     * @param sb        缓冲区
+     * @param segments  片段
+     * @param delimiter 分隔符
+     */
+    static void join(StringBuilder sb, SQLSegment[] segments, String delimiter) {
+        boolean first = true;
+        for (SQLSegment segment : segments) {
+            first = append(sb, segment, delimiter, first);
+        }
+    }
+
+    /**
+     * 追加单个片段，片段未写入任何内容时回退分隔符
+     *
+     * @return 追加后是否仍为首个片段
+     */
+    private static boolean append(StringBuilder sb, SQLSegment segment, String delimiter, boolean first) {
+        int mark = sb.length();
+        if (!first) {
+            sb.append(delimiter);
+        }
+        int start = sb.length();
+        segment.appendTo(sb);
+        if (sb.length() == start) {
+            sb.setLength(mark);
+            return first;
+        }
+        return false;
+    }
+
     /**
      * @return 得到sql片段
      */
     String get();
 
+    /**
+     * 将片段追加到缓冲区，默认基于 {@link #get()}
+     * 复合片段应覆盖该方法，避免中间字符串的产生
+     *
+     * @param sb 缓冲区
+     */
+    default void appendTo(StringBuilder sb) {
+        String content = get();
+        if (null != content) {
+            sb.append(content);
+        }
+    }
+
+    /**
+     * 将决定sql文本的结构写入指纹，不包含参数值
+     * 默认无法描述，包含该片段的sql不参与渲染缓存
+     *
+     * @param shape 结构指纹
+     * @return 是否描述成功
+     */
+    default boolean describe(SQLShape shape) {
+        return false;
+    }
+
     /**
      * 类型强转，请慎用，除非你知道真实类型
      *
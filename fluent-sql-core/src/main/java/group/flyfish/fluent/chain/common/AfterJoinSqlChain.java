@@ -23,4 +23,12 @@ public interface AfterJoinSqlChain {
      * @return 处理链
      */
     HandleSqlChain then();
+
+    /**
+     * 声明连接为对一关系，即主表的每一行最多匹配一行
+     * 计数时，未被条件引用的对一左连接不会改变行数，将被省略；on条件带有绑定参数时保留
+     *
+     * @return 链式调用
+     */
+    AfterJoinSqlChain toOne();
 }
@@ -0,0 +1,83 @@
+package group.flyfish.fluent.chain.execution;
+
+import group.flyfish.fluent.entity.CursorPage;
+import group.flyfish.fluent.entity.DataPage;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 已经绑定的异步实体
+ * 基于阻塞的数据库操作，在 {@link group.flyfish.fluent.utils.concurrent.FluentExecutors#asyncExecutor()} 中执行，
+ * 多个相互独立的查询可以并行发出，无需引入响应式编程
+ * sql在调用线程渲染完毕后提交；处于事务中时，为了加入当前线程的事务，在调用线程执行并返回已完成的结果
+ *
+ * @author wangyu
+ */
+public interface AsyncBoundEntitySpec<T> {
+
+    /**
+     * 执行一条sql，并且序列化为对象
+     * 注意，如果查询不止一条，该方法仅返回第一条数据
+     * 如果没有结果，结果为null
+     *
+     * @return 查询结果
+     */
+    @NonNull
+    CompletableFuture<T> one();
+
+    /**
+     * 执行一条sql，并且查询出所有行
+     *
+     * @return 返回的列表
+     */
+    @NonNull
+    CompletableFuture<List<T>> all();
+
+    /**
+     * 忽略查询字段，查询当前条件下的数量
+     *
+     * @return 数量
+     */
+    @NonNull
+    CompletableFuture<Integer> count();
+
+    /**
+     * 分页查询
+     *
+     * @param page 分页对象
+     * @return 返回的分页对象
+     */
+    @NonNull
+    CompletableFuture<DataPage<T>> page(DataPage<T> page);
+
+    /**
+     * 游标分页
+     *
+     * @param cursor 上一页返回的游标，为空时查询首页
+     * @param size   分页大小
+     * @return 分页结果
+     */
+    @NonNull
+    CompletableFuture<CursorPage<T>> seek(@Nullable String cursor, int size);
+
+    /**
+     * 直接执行sql，根据update count返回更新行数，如果是查询，永远返回0
+     *
+     * @return 更新行数
+     */
+    @NonNull
+    CompletableFuture<Integer> execute();
+
+    /**
+     * 以当前sql批量执行多组参数
+     *
+     * @param parameters 多组参数，每组的数量与当前sql的参数一致
+     * @param batchSize  每批的数量
+     * @return 每组参数对应的更新行数
+     */
+    @NonNull
+    CompletableFuture<int[]> executeBatch(List<Object[]> parameters, int batchSize);
+}
@@ -1,10 +1,13 @@
 package group.flyfish.fluent.chain.execution;
 
+import group.flyfish.fluent.entity.CursorPage;
 import group.flyfish.fluent.entity.DataPage;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * 已经绑定的实体
@@ -13,6 +16,9 @@ import java.util.List;
  */
 public interface BoundEntitySpec<T> {
 
+    // 默认的批次大小
+    int DEFAULT_BATCH_SIZE = 500;
+
     /**
      * 执行一条sql，并且序列化为对象
      * 注意，如果查询不止一条，该方法仅返回第一条数据
@@ -31,6 +37,26 @@ public interface BoundEntitySpec<T> {
     @NonNull
     List<T> all();
 
+    /**
+     * 以流的形式逐行读取，内存占用与结果集大小无关
+     * 使用完毕后必须关闭流，推荐使用 try-with-resources
+     *
+     * @return 结果流
+     */
+    @NonNull
+    Stream<T> stream();
+
+    /**
+     * 逐行消费所有结果，完成后自动关闭底层语句
+     *
+     * @param consumer 消费者
+     */
+    default void forEach(Consumer<? super T> consumer) {
+        try (Stream<T> stream = stream()) {
+            stream.forEach(consumer);
+        }
+    }
+
     /**
      * 忽略查询字段，查询当前条件下的数量
      *
@@ -46,10 +72,40 @@ public interface BoundEntitySpec<T> {
     @NonNull
     DataPage<T> page(DataPage<T> page);
 
+    /**
+     * 游标分页，以排序字段的最后一行定位下一页，翻页代价与页码无关
+     * 需要通过order指定排序字段，且排序字段的组合唯一
+     *
+     * @param cursor 上一页返回的游标，为空时查询首页
+     * @param size   分页大小
+     * @return 分页结果
+     */
+    @NonNull
+    CursorPage<T> seek(@Nullable String cursor, int size);
+
     /**
      * 直接执行sql，根据update count返回更新行数，如果是查询，永远返回0
      *
      * @return 更新行数
      */
     int execute();
+
+    /**
+     * 以当前sql批量执行多组参数，使用默认的批次大小
+     *
+     * @param parameters 多组参数，每组的数量与当前sql的参数一致
+     * @return 每组参数对应的更新行数
+     */
+    default int[] executeBatch(List<Object[]> parameters) {
+        return executeBatch(parameters, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 以当前sql批量执行多组参数
+     *
+     * @param parameters 多组参数，每组的数量与当前sql的参数一致
+     * @param batchSize  每批的数量
+     * @return 每组参数对应的更新行数
+     */
+    int[] executeBatch(List<Object[]> parameters, int batchSize);
 }
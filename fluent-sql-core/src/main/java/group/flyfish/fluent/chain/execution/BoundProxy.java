@@ -21,4 +21,11 @@ public interface BoundProxy<T> {
      */
     ReactiveBoundEntitySpec<T> reactive();
 
+    /**
+     * 在执行器中运行阻塞的数据库操作，以 {@link java.util.concurrent.CompletableFuture} 返回结果
+     *
+     * @return 结果
+     */
+    AsyncBoundEntitySpec<T> async();
+
 }
@@ -0,0 +1,52 @@
+package group.flyfish.fluent.chain.execution;
+
+/**
+ * 编译后的sql语句
+ * 不可变，渲染结果与参数槽位在编译时确定，可在多个线程间共享执行
+ * 适用于启动时构建一次，运行时反复执行的热点查询
+ *
+ * @param <T> 结果泛型
+ * @author wangyu
+ */
+public interface CompiledStatement<T> {
+
+    /**
+     * @return 渲染后的sql
+     */
+    String getSql();
+
+    /**
+     * @return 渲染后的计数sql
+     */
+    String getCountSql();
+
+    /**
+     * @return 参数槽位数量
+     */
+    int getParameterCount();
+
+    /**
+     * @return 编译时绑定的参数副本
+     */
+    Object[] getParameters();
+
+    /**
+     * @return 结果类型
+     */
+    Class<T> getResultType();
+
+    /**
+     * 使用编译时绑定的参数执行
+     *
+     * @return 绑定代理
+     */
+    BoundProxy<T> fetch();
+
+    /**
+     * 使用新的参数执行，参数按槽位顺序传入，数量必须与槽位一致
+     *
+     * @param parameters 参数
+     * @return 绑定代理
+     */
+    BoundProxy<T> bind(Object... parameters);
+}
@@ -1,11 +1,16 @@
 package group.flyfish.fluent.chain.execution;
 
+import group.flyfish.fluent.entity.CursorPage;
 import group.flyfish.fluent.entity.DataPage;
+import org.reactivestreams.Publisher;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.function.Function;
+
 /**
  * 已经绑定的异步实体
  *
@@ -13,6 +18,12 @@ import reactor.core.publisher.Mono;
  */
 public interface ReactiveBoundEntitySpec<T> {
 
+    // 默认同时执行的批次数量
+    int DEFAULT_BATCH_CONCURRENCY = 4;
+
+    // 流式查询的默认抓取数量
+    int DEFAULT_STREAM_FETCH_SIZE = 1000;
+
     /**
      * 执行一条sql，并且序列化为对象
      * 注意，如果查询不止一条，该方法仅返回第一条数据
@@ -31,6 +42,36 @@ public interface ReactiveBoundEntitySpec<T> {
     @NonNull
     Flux<T> all();
 
+    /**
+     * 以默认的抓取数量流式读取
+     *
+     * @return 结果流
+     */
+    @NonNull
+    default Flux<T> stream() {
+        return stream(DEFAULT_STREAM_FETCH_SIZE);
+    }
+
+    /**
+     * 流式读取，驱动按抓取数量分批读取，下游消费变慢时暂停读取，内存占用与结果集大小无关
+     *
+     * @param fetchSize 每次从数据库读取的行数
+     * @return 结果流
+     */
+    @NonNull
+    Flux<T> stream(int fetchSize);
+
+    /**
+     * 流式读取，并按固定行数分组输出，便于下游批量处理
+     *
+     * @param size 每组的行数，同时作为抓取数量
+     * @return 分组后的结果流
+     */
+    @NonNull
+    default Flux<List<T>> window(int size) {
+        return stream(size).buffer(size);
+    }
+
     /**
      * 忽略查询字段，查询数量
      *
@@ -46,10 +87,56 @@ public interface ReactiveBoundEntitySpec<T> {
     @NonNull
     Mono<DataPage<T>> page(DataPage<T> page);
 
+    /**
+     * 游标分页，以排序字段的最后一行定位下一页，翻页代价与页码无关
+     * 需要通过order指定排序字段，且排序字段的组合唯一
+     *
+     * @param cursor 上一页返回的游标，为空时查询首页
+     * @param size   分页大小
+     * @return 分页结果
+     */
+    @NonNull
+    Mono<CursorPage<T>> seek(@Nullable String cursor, int size);
+
     /**
      * 直接执行sql，根据update count返回更新行数，如果是查询，永远返回0
      *
      * @return 更新行数
      */
     Mono<Long> execute();
+
+    /**
+     * 以当前sql批量执行多组参数，使用默认的批次大小和并发数
+     *
+     * @param parameters 多组参数，每组的数量与当前sql的参数一致
+     * @return 每组参数对应的更新行数
+     */
+    default Flux<Long> executeBatch(Publisher<Object[]> parameters) {
+        return executeBatch(parameters, BoundEntitySpec.DEFAULT_BATCH_SIZE, DEFAULT_BATCH_CONCURRENCY);
+    }
+
+    /**
+     * 以当前sql批量执行多个实体，实体按给定的逻辑转换为参数
+     *
+     * @param items       实体
+     * @param binder      实体到参数的转换，参数顺序与当前sql一致
+     * @param batchSize   每批的数量
+     * @param concurrency 同时执行的批次数量
+     * @param <E>         实体泛型
+     * @return 每个实体对应的更新行数
+     */
+    default <E> Flux<Long> executeBatch(Publisher<E> items, Function<? super E, Object[]> binder, int batchSize, int concurrency) {
+        return executeBatch(Flux.from(items).map(binder), batchSize, concurrency);
+    }
+
+    /**
+     * 以当前sql批量执行多组参数，上游按批次的消费速度请求数据
+     *
+     * @param parameters  多组参数，每组的数量与当前sql的参数一致
+     * @param batchSize   每批的数量
+     * @param concurrency 同时执行的批次数量
+     * @return 每组参数对应的更新行数
+     */
+    @NonNull
+    Flux<Long> executeBatch(Publisher<Object[]> parameters, int batchSize, int concurrency);
 }
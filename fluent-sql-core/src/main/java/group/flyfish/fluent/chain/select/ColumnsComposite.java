@@ -0,0 +1,66 @@
+package group.flyfish.fluent.chain.select;
+
+import group.flyfish.fluent.chain.SQLSegment;
+import group.flyfish.fluent.utils.sql.SFunction;
+import group.flyfish.fluent.utils.sql.SQLShape;
+
+/**
+ * 选择字段集合，渲染为带别名的选择语句
+ *
+ * @author wangyu
+ */
+class ColumnsComposite implements SelectComposite {
+
+    // 字段getter
+    protected final SFunction<?, ?>[] getters;
+
+    // 单字段指定的别名
+    private final String alias;
+
+    ColumnsComposite(SFunction<?, ?>[] getters) {
+        this(getters, null);
+    }
+
+    ColumnsComposite(SFunction<?, ?>[] getters, String alias) {
+        this.getters = getters;
+        this.alias = alias;
+    }
+
+    /**
+     * @return 得到sql片段
+     */
+    @Override
+    public String get() {
+        StringBuilder sb = new StringBuilder(getters.length << 5);
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * 逐个追加字段，以逗号分隔
+     *
+     * @param sb 缓冲区
+     */
+    @Override
+    public void appendTo(StringBuilder sb) {
+        SQLSegment.join(sb, getters, ",");
+    }
+
+    /**
+     * 结构为类型、所有字段的列引用和别名
+     *
+     * @param shape 结构指纹
+     * @return 是否描述成功
+     */
+    @Override
+    public boolean describe(SQLShape shape) {
+        shape.add(getClass());
+        for (SFunction<?, ?> getter : getters) {
+            if (!getter.describe(shape)) {
+                return false;
+            }
+        }
+        shape.add(alias);
+        return true;
+    }
+}
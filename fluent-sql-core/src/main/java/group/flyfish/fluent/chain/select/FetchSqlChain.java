@@ -2,9 +2,19 @@ package group.flyfish.fluent.chain.select;
 
 import group.flyfish.fluent.chain.common.ExecutableSql;
 import group.flyfish.fluent.chain.execution.BoundProxy;
+import group.flyfish.fluent.chain.execution.CompiledStatement;
+import group.flyfish.fluent.entity.ExecutionHints;
 
 public interface FetchSqlChain extends ExecutableSql {
 
+    /**
+     * 指定当前语句的执行提示，如抓取数量、最大行数和超时时间，多次调用时合并
+     *
+     * @param hints 执行提示
+     * @return 链式调用
+     */
+    FetchSqlChain hints(ExecutionHints... hints);
+
     /**
      * 使用主表进行下一步操作
      *
@@ -21,4 +31,21 @@ public interface FetchSqlChain extends ExecutableSql {
      * @return 结果
      */
     <T> BoundProxy<T> as(Class<T> type);
+
+    /**
+     * 使用主表编译为不可变语句
+     *
+     * @param <T> 泛型
+     * @return 编译结果
+     */
+    <T> CompiledStatement<T> compile();
+
+    /**
+     * 编译为不可变语句，编译结果可在多个线程间共享执行，无需重复渲染
+     *
+     * @param type 具体结果类型
+     * @param <T>  泛型
+     * @return 编译结果
+     */
+    <T> CompiledStatement<T> compile(Class<T> type);
 }
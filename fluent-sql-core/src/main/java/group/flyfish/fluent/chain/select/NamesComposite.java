@@ -0,0 +1,30 @@
+package group.flyfish.fluent.chain.select;
+
+import group.flyfish.fluent.utils.sql.SFunction;
+
+/**
+ * 字段名称集合，仅渲染限定列名，不带别名
+ *
+ * @author wangyu
+ */
+class NamesComposite extends ColumnsComposite {
+
+    NamesComposite(SFunction<?, ?>[] getters) {
+        super(getters);
+    }
+
+    /**
+     * 逐个追加字段名称，以逗号分隔
+     *
+     * @param sb 缓冲区
+     */
+    @Override
+    public void appendTo(StringBuilder sb) {
+        for (int i = 0; i < getters.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(getters[i].getName());
+        }
+    }
+}
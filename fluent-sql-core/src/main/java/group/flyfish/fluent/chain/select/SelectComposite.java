@@ -5,9 +5,6 @@ import group.flyfish.fluent.utils.context.AliasComposite;
 import group.flyfish.fluent.utils.sql.EntityNameUtils;
 import group.flyfish.fluent.utils.sql.SFunction;
 
-import java.util.Arrays;
-import java.util.stream.Collectors;
-
 /**
  * 选择语句泛型包装
  *
@@ -26,7 +23,7 @@ public interface SelectComposite extends SQLSegment {
      */
     @SafeVarargs
     static <T> SelectComposite composite(SFunction<T, ?>... getter) {
-        return () -> columns(getter);
+        return new ColumnsComposite(getter);
     }
 
     /**
@@ -38,7 +35,7 @@ public interface SelectComposite extends SQLSegment {
      */
     @SafeVarargs
     static <T> SelectComposite names(SFunction<T, ?>... getter) {
-        return () -> Arrays.stream(getter).map(SFunction::getName).collect(Collectors.joining(","));
+        return new NamesComposite(getter);
     }
 
     /**
@@ -51,7 +48,7 @@ public interface SelectComposite extends SQLSegment {
      */
     static <T> SelectComposite composite(SFunction<T, ?> getter, String alias) {
         AliasComposite.add(getter, alias);
-        return () -> columns(getter);
+        return new ColumnsComposite(new SFunction<?, ?>[]{getter}, alias);
     }
 
     /**
@@ -62,19 +59,8 @@ public interface SelectComposite extends SQLSegment {
      * @return 字段集合
      */
     static <T> SelectComposite all(Class<T> clazz) {
-        return () -> columns(EntityNameUtils.getFields(clazz).entrySet().stream()
+        return new ColumnsComposite(EntityNameUtils.getFields(clazz).entrySet().stream()
                 .map(entry -> new SFunction.StaticRef<>(clazz, entry.getKey(), entry.getValue()))
                 .toArray(SFunction[]::new));
     }
-
-    /**
-     * 拼接多个getter
-     *
-     * @param <T>     实体泛型
-     * @param getters 多个getter
-     * @return 拼接后的字段列表
-     */
-    private static <T> String columns(SFunction<T, ?>... getters) {
-        return Arrays.stream(getters).map(SFunction::get).collect(Collectors.joining(","));
-    }
 }
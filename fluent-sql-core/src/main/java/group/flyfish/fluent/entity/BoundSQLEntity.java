@@ -1,16 +1,19 @@
 package group.flyfish.fluent.entity;
 
+import group.flyfish.fluent.utils.text.TemplateCompiler;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 
-import java.text.MessageFormat;
 import java.util.function.Supplier;
 
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class BoundSQLEntity<T> implements Supplier<String> {
 
+    // 分页后缀模板，槽位按变量出现顺序：0 -> size，1 -> offset
+    private static final TemplateCompiler.CompiledTemplate PAGE_SUFFIX = TemplateCompiler.compile("LIMIT {size} OFFSET {offset}");
+
     @NonNull
     private final Supplier<SQLEntity> entity;
 
@@ -22,6 +25,10 @@ public class BoundSQLEntity<T> implements Supplier<String> {
     // 末尾sql，用于支持分页
     private Supplier<String> lastSql;
 
+    // 执行提示
+    @Getter
+    private ExecutionHints hints = ExecutionHints.NONE;
+
     public static <T> BoundSQLEntity<T> of(Supplier<SQLEntity> entity, Class<T> resultType) {
         return new BoundSQLEntity<>(entity, resultType);
     }
@@ -31,12 +38,39 @@ public class BoundSQLEntity<T> implements Supplier<String> {
         return getSql();
     }
 
+    /**
+     * 指定执行提示
+     *
+     * @param hints 执行提示，为空时不指定
+     * @return 当前实体
+     */
+    public BoundSQLEntity<T> hints(ExecutionHints hints) {
+        this.hints = null == hints ? ExecutionHints.NONE : hints;
+        return this;
+    }
+
     public BoundSQLEntity<T> paged(DataPage<T> page) {
         BoundSQLEntity<T> cloned = new BoundSQLEntity<>(entity, resultType);
-        cloned.lastSql = () -> MessageFormat.format("LIMIT {0} OFFSET {1}", page.getSize(), page.getPage() * page.getSize());
+        cloned.hints = hints;
+        cloned.lastSql = () -> PAGE_SUFFIX.apply(page.getSize(), page.getPage() * page.getSize());
         return cloned;
     }
 
+    /**
+     * 立即渲染sql和参数，返回固定内容的实体
+     * 构建器只能在单个线程中使用，提交到其他线程执行前需要在调用线程完成渲染
+     *
+     * @return 渲染后的实体
+     */
+    public BoundSQLEntity<T> materialize() {
+        String sql = getSql();
+        Object[] parameters = getParameters();
+        SQLEntity rendered = SQLEntity.of(() -> sql, () -> parameters);
+        BoundSQLEntity<T> materialized = new BoundSQLEntity<>(() -> rendered, resultType);
+        materialized.hints = hints;
+        return materialized;
+    }
+
     public String getSql() {
         String built = entity.get().getSql();
         if (null != lastSql) {
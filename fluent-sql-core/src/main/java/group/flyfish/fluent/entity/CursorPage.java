@@ -0,0 +1,38 @@
+package group.flyfish.fluent.entity;
+
+import lombok.Data;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 游标分页
+ * 基于排序字段的最后一行定位下一页，翻页的代价与页码无关
+ *
+ * @author wangyu
+ */
+@Data
+public class CursorPage<T> {
+
+    private List<T> list = Collections.emptyList();
+
+    private int size = 10;
+
+    // 下一页的游标，没有下一页时为空
+    private String next;
+
+    public static <T> CursorPage<T> of(List<T> list, int size, String next) {
+        CursorPage<T> result = new CursorPage<>();
+        result.list = list;
+        result.size = size;
+        result.next = next;
+        return result;
+    }
+
+    /**
+     * @return 是否存在下一页
+     */
+    public boolean hasNext() {
+        return null != next;
+    }
+}
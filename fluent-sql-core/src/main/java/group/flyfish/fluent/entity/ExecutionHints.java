@@ -0,0 +1,115 @@
+package group.flyfish.fluent.entity;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+
+/**
+ * 单条语句的执行提示
+ * 抓取数量、最大行数和超时时间仅作用于当前语句，不影响全局配置
+ * 不可变，多个提示通过 {@link #of(ExecutionHints...)} 合并，后者优先
+ *
+ * @author wangyu
+ */
+public final class ExecutionHints {
+
+    public static final ExecutionHints NONE = new ExecutionHints(0, 0, null);
+
+    // 抓取数量，0代表不指定
+    private final int fetchSize;
+
+    // 最大行数，0代表不限制
+    private final int maxRows;
+
+    // 超时时间，null代表不指定
+    private final Duration timeout;
+
+    private ExecutionHints(int fetchSize, int maxRows, Duration timeout) {
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.timeout = timeout;
+    }
+
+    /**
+     * 抓取数量
+     *
+     * @param fetchSize 每次从数据库读取的行数
+     * @return 提示
+     */
+    public static ExecutionHints fetchSize(int fetchSize) {
+        Assert.isTrue(fetchSize > 0, "抓取数量必须大于0！");
+        return new ExecutionHints(fetchSize, 0, null);
+    }
+
+    /**
+     * 最大行数
+     *
+     * @param maxRows 最多返回的行数
+     * @return 提示
+     */
+    public static ExecutionHints maxRows(int maxRows) {
+        Assert.isTrue(maxRows > 0, "最大行数必须大于0！");
+        return new ExecutionHints(0, maxRows, null);
+    }
+
+    /**
+     * 超时时间
+     *
+     * @param timeout 语句的执行超时
+     * @return 提示
+     */
+    public static ExecutionHints timeout(Duration timeout) {
+        Assert.isTrue(null != timeout && !timeout.isNegative() && !timeout.isZero(), "超时时间必须大于0！");
+        return new ExecutionHints(0, 0, timeout);
+    }
+
+    /**
+     * 合并多个提示，后者指定的值覆盖前者
+     *
+     * @param hints 提示
+     * @return 合并结果
+     */
+    public static ExecutionHints of(ExecutionHints... hints) {
+        ExecutionHints merged = NONE;
+        if (null != hints) {
+            for (ExecutionHints hint : hints) {
+                merged = merged.merge(hint);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 合并提示，参数中指定的值覆盖当前值
+     *
+     * @param other 其他提示
+     * @return 合并结果
+     */
+    public ExecutionHints merge(ExecutionHints other) {
+        if (null == other || other.isEmpty()) {
+            return this;
+        }
+        return new ExecutionHints(other.fetchSize > 0 ? other.fetchSize : fetchSize,
+                other.maxRows > 0 ? other.maxRows : maxRows,
+                null != other.timeout ? other.timeout : timeout);
+    }
+
+    /**
+     * @return 是否未指定任何提示
+     */
+    public boolean isEmpty() {
+        return fetchSize == 0 && maxRows == 0 && null == timeout;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,100 @@
+package group.flyfish.fluent.insert;
+
+import group.flyfish.fluent.entity.ExecutionHints;
+import group.flyfish.fluent.utils.sql.SFunction;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 插入链式声明
+ * 多行数据合并为 INSERT ... VALUES (...),(...) 语句，按行数和参数上限自动拆分为多条执行
+ *
+ * @param <T> 实体泛型
+ * @author wangyu
+ */
+public interface Insert<T> {
+
+    /**
+     * 指定插入的列，不指定时插入实体的所有映射列，但跳过由数据库生成的主键：
+     * 标注了 GeneratedValue 的列，以及所有实体中值均为空的主键列
+     *
+     * @param columns 列引用
+     * @return 链式
+     */
+    @SuppressWarnings("unchecked")
+    Insert<T> columns(SFunction<T, ?>... columns);
+
+    /**
+     * 指定插入的列名
+     *
+     * @param columns 列名，不含包裹符号
+     * @return 链式
+     */
+    Insert<T> columns(String... columns);
+
+    /**
+     * 添加一个实体
+     *
+     * @param entity 实体
+     * @return 链式
+     */
+    Insert<T> value(T entity);
+
+    /**
+     * 添加多个实体
+     *
+     * @param entities 实体集合
+     * @return 链式
+     */
+    Insert<T> values(Collection<? extends T> entities);
+
+    /**
+     * 添加一行值，需提前指定列，值的顺序与列一致
+     *
+     * @param values 值
+     * @return 链式
+     */
+    Insert<T> row(Object... values);
+
+    /**
+     * 每条语句最多包含的行数
+     *
+     * @param rows 行数
+     * @return 链式
+     */
+    Insert<T> chunk(int rows);
+
+    /**
+     * 每条语句最多包含的参数数量，应不超过数据库的限制
+     * 默认为32767，即PostgreSQL驱动的上限；MySQL的上限为65535，可调大以减少语句数量
+     *
+     * @param parameters 参数数量
+     * @return 链式
+     */
+    Insert<T> maxParameters(int parameters);
+
+    /**
+     * 指定每条语句的执行提示，如超时时间，多次调用时合并
+     *
+     * @param hints 执行提示
+     * @return 链式
+     */
+    Insert<T> hints(ExecutionHints... hints);
+
+    /**
+     * 执行插入
+     *
+     * @return 插入的总行数
+     */
+    int execute();
+
+    /**
+     * 执行插入并返回数据库生成的主键
+     *
+     * @param keyColumns 主键列，为空时由驱动决定
+     * @return 每行生成的主键，按插入顺序排列
+     */
+    List<Map<String, Object>> executeReturningKeys(String... keyColumns);
+}
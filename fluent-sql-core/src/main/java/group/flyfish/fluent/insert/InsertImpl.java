@@ -0,0 +1,266 @@
+package group.flyfish.fluent.insert;
+
+import group.flyfish.fluent.debug.FluentSqlDebugger;
+import group.flyfish.fluent.entity.BoundSQLEntity;
+import group.flyfish.fluent.entity.ExecutionHints;
+import group.flyfish.fluent.entity.SQLEntity;
+import group.flyfish.fluent.operations.FluentSQLOperations;
+import group.flyfish.fluent.utils.data.ParameterUtils;
+import group.flyfish.fluent.utils.sql.ColumnRef;
+import group.flyfish.fluent.utils.sql.EntityMetadata;
+import group.flyfish.fluent.utils.sql.EntityNameUtils;
+import group.flyfish.fluent.utils.sql.SFunction;
+import group.flyfish.fluent.utils.sql.SqlNameUtils;
+import org.springframework.util.Assert;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 插入实现
+ * 实体的值在执行时才读取，列的顺序以 {@link EntityMetadata} 为准
+ *
+ * @param <T> 实体泛型
+ * @author wangyu
+ */
+public class InsertImpl<T> implements Insert<T> {
+
+    // 默认每条语句的行数
+    private static final int DEFAULT_CHUNK = 1000;
+
+    // 默认每条语句的参数上限，取PostgreSQL驱动的上限（Short.MAX_VALUE），MySQL的上限为65535，可按需调大
+    private static final int DEFAULT_MAX_PARAMETERS = Short.MAX_VALUE;
+
+    private final EntityMetadata metadata;
+
+    private final Supplier<FluentSQLOperations> operations;
+
+    // 属性，字符串列未映射时为null
+    private final List<String> properties = new ArrayList<>();
+
+    // 包裹后的列名
+    private final List<String> columns = new ArrayList<>();
+
+    // 待插入的行，元素为实体或值数组
+    private final List<Object> rows = new ArrayList<>();
+
+    private int chunk = DEFAULT_CHUNK;
+
+    private int maxParameters = DEFAULT_MAX_PARAMETERS;
+
+    private ExecutionHints hints = ExecutionHints.NONE;
+
+    public InsertImpl(Class<T> entityClass, Supplier<FluentSQLOperations> operations) {
+        this.metadata = EntityMetadata.of(entityClass);
+        this.operations = operations;
+    }
+
+    @Override
+    @SafeVarargs
+    public final Insert<T> columns(SFunction<T, ?>... columns) {
+        Assert.isTrue(this.columns.isEmpty(), "插入的列只能指定一次！");
+        for (SFunction<T, ?> column : columns) {
+            ColumnRef ref = column.getColumnRef();
+            this.properties.add(ref.property());
+            this.columns.add(SqlNameUtils.wrap(ref.column()));
+        }
+        return this;
+    }
+
+    @Override
+    public Insert<T> columns(String... columns) {
+        Assert.isTrue(this.columns.isEmpty(), "插入的列只能指定一次！");
+        for (String column : columns) {
+            this.properties.add(metadata.getProperty(column));
+            this.columns.add(SqlNameUtils.wrap(column));
+        }
+        return this;
+    }
+
+    @Override
+    public Insert<T> value(T entity) {
+        Assert.notNull(entity, "插入的实体不可为空！");
+        rows.add(entity);
+        return this;
+    }
+
+    @Override
+    public Insert<T> values(Collection<? extends T> entities) {
+        if (null != entities) {
+            entities.forEach(this::value);
+        }
+        return this;
+    }
+
+    @Override
+    public Insert<T> row(Object... values) {
+        Assert.isTrue(!columns.isEmpty(), "按行插入前需要指定列！");
+        Assert.isTrue(null != values && values.length == columns.size(),
+                "值的数量与列不匹配，需要" + columns.size() + "个！");
+        rows.add(values);
+        return this;
+    }
+
+    @Override
+    public Insert<T> chunk(int rows) {
+        Assert.isTrue(rows > 0, "每条语句的行数必须大于0！");
+        this.chunk = rows;
+        return this;
+    }
+
+    @Override
+    public Insert<T> maxParameters(int parameters) {
+        Assert.isTrue(parameters > 0, "参数上限必须大于0！");
+        this.maxParameters = parameters;
+        return this;
+    }
+
+    @Override
+    public Insert<T> hints(ExecutionHints... hints) {
+        this.hints = this.hints.merge(ExecutionHints.of(hints));
+        return this;
+    }
+
+    @Override
+    public int execute() {
+        int[] total = new int[1];
+        split((operations, entity) -> total[0] += operations.execute(entity));
+        return total[0];
+    }
+
+    @Override
+    public List<Map<String, Object>> executeReturningKeys(String... keyColumns) {
+        List<Map<String, Object>> keys = new ArrayList<>(rows.size());
+        split((operations, entity) -> keys.addAll(operations.executeReturningKeys(entity, keyColumns)));
+        return keys;
+    }
+
+    /**
+     * 按行数和参数上限拆分并依次执行，行数相同的语句共用同一个sql
+     *
+     * @param executor 执行逻辑
+     */
+    private void split(ChunkExecutor executor) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        FluentSQLOperations operations = this.operations.get();
+        Assert.notNull(operations, "未指定执行数据源！");
+        if (columns.isEmpty()) {
+            metadata.getColumns().forEach((property, column) -> {
+                if (!generated(property)) {
+                    properties.add(property);
+                    columns.add(metadata.getQuotedColumn(property));
+                }
+            });
+        }
+        int width = columns.size();
+        Assert.isTrue(width > 0 && width <= maxParameters, "插入的列数量必须大于0且不超过参数上限！");
+        int size = Math.min(chunk, maxParameters / width);
+        String fullSql = null;
+        for (int start = 0; start < rows.size(); start += size) {
+            int count = Math.min(size, rows.size() - start);
+            String sql;
+            if (count == size) {
+                sql = null == fullSql ? (fullSql = sql(count)) : fullSql;
+            } else {
+                sql = sql(count);
+            }
+            Object[] parameters = new Object[count * width];
+            for (int i = 0; i < count; i++) {
+                fill(rows.get(start + i), parameters, i * width);
+            }
+            if (FluentSqlDebugger.enabled()) {
+                System.out.println("prepared sql: " + sql);
+            }
+            SQLEntity entity = SQLEntity.of(() -> sql, () -> parameters);
+            executor.execute(operations, BoundSQLEntity.of(() -> entity, Integer.class).hints(hints));
+        }
+    }
+
+    /**
+     * 默认的列中是否跳过该属性，由数据库生成值的列，或所有实体中值均为空的主键列
+     * 未指定列时只能插入实体，因此所有行均为实体
+     *
+     * @param property 属性
+     * @return 结果
+     */
+    private boolean generated(String property) {
+        if (metadata.isGenerated(property)) {
+            return true;
+        }
+        if (!metadata.getIds().contains(property)) {
+            return false;
+        }
+        for (Object row : rows) {
+            if (null != metadata.getValue(row, property)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 渲染指定行数的插入语句
+     *
+     * @param count 行数
+     * @return sql
+     */
+    private String sql(int count) {
+        StringBuilder row = new StringBuilder(columns.size() * 3 + 2).append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                row.append(", ");
+            }
+            row.append('?');
+        }
+        row.append(')');
+        StringBuilder sb = new StringBuilder(64 + columns.size() * 16 + count * (row.length() + 2));
+        sb.append("INSERT INTO ").append(EntityNameUtils.getTableName(metadata.getEntityClass())).append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(columns.get(i));
+        }
+        sb.append(") VALUES ");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 将一行的值转换后写入参数表
+     *
+     * @param row        实体或值数组
+     * @param parameters 参数表
+     * @param offset     起始位置
+     */
+    private void fill(Object row, Object[] parameters, int offset) {
+        if (row instanceof Object[]) {
+            Object[] values = (Object[]) row;
+            for (int i = 0; i < values.length; i++) {
+                parameters[offset + i] = ParameterUtils.convert(values[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < properties.size(); i++) {
+            String property = properties.get(i);
+            Assert.notNull(property, "列" + columns.get(i) + "未映射到实体属性，无法从实体取值！");
+            parameters[offset + i] = ParameterUtils.convert(metadata.getValue(row, property));
+        }
+    }
+
+    /**
+     * 单条语句的执行逻辑
+     */
+    @FunctionalInterface
+    private interface ChunkExecutor {
+
+        void execute(FluentSQLOperations operations, BoundSQLEntity<Integer> entity);
+    }
+}
@@ -4,6 +4,8 @@ import group.flyfish.fluent.entity.BoundSQLEntity;
 import org.springframework.lang.Nullable;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * sql query操作
@@ -33,6 +35,16 @@ public interface FluentSQLOperations {
      */
     <T> List<T> select(BoundSQLEntity<T> entity);
 
+    /**
+     * 执行一条sql，以流的形式逐行读取
+     * 结果在消费时才映射，调用方需要关闭流以释放连接
+     *
+     * @param entity sql实体
+     * @param <T>    目标泛型
+     * @return 结果流
+     */
+    <T> Stream<T> stream(BoundSQLEntity<T> entity);
+
     /**
      * 直接执行sql，根据update count返回更新行数，如果是查询，永远返回0
      *
@@ -40,4 +52,33 @@ public interface FluentSQLOperations {
      * @return 更新行数
      */
     <T> int execute(BoundSQLEntity<T> entity);
+
+    /**
+     * 以同一条sql批量执行多组参数，按批次发送以减少网络往返
+     *
+     * @param entity     sql实体，仅使用其中的sql
+     * @param parameters 多组参数，每组与sql中的占位符一一对应
+     * @param batchSize  每批的数量
+     * @return 每组参数对应的更新行数，驱动无法统计时为 {@link java.sql.Statement#SUCCESS_NO_INFO}
+     */
+    <T> int[] executeBatch(BoundSQLEntity<T> entity, List<Object[]> parameters, int batchSize);
+
+    /**
+     * 执行一条插入sql，并返回数据库生成的主键
+     *
+     * @param entity     sql实体
+     * @param keyColumns 主键列，为空时由驱动决定
+     * @return 每行生成的主键
+     */
+    <T> List<Map<String, Object>> executeReturningKeys(BoundSQLEntity<T> entity, String... keyColumns);
+
+    /**
+     * 当前线程的查询能否分发到其他线程执行
+     * 处于事务中时，其他线程无法共享事务的连接，实现类应返回false
+     *
+     * @return 是否可以并行查询
+     */
+    default boolean supportsConcurrentQueries() {
+        return true;
+    }
 }
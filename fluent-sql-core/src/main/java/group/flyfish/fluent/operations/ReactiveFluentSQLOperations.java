@@ -40,4 +40,26 @@ public interface ReactiveFluentSQLOperations {
      * @return 更新行数
      */
     <T> Mono<Long> execute(BoundSQLEntity<T> entity);
+
+    /**
+     * 以同一条sql批量执行多组参数，每批通过 {@code Statement.add()} 合并为一次执行
+     * 批次之间并发执行，结果按批次顺序输出；处于事务中时批次共用一个连接，实现应逐批执行
+     *
+     * @param entity      sql实体，仅使用其中的sql
+     * @param parameters  多组参数，每组与sql中的占位符一一对应
+     * @param batchSize   每批的数量
+     * @param concurrency 同时执行的批次数量
+     * @return 每组参数对应的更新行数
+     */
+    <T> Flux<Long> executeBatch(BoundSQLEntity<T> entity, Flux<Object[]> parameters, int batchSize, int concurrency);
+
+    /**
+     * 以流的形式读取所有行，按下游的消费速度从驱动读取
+     *
+     * @param entity    sql实体
+     * @param fetchSize 每次从数据库读取的行数
+     * @param <T>       目标泛型
+     * @return 结果流
+     */
+    <T> Flux<T> stream(BoundSQLEntity<T> entity, int fetchSize);
 }
@@ -1,6 +1,7 @@
 package group.flyfish.fluent.query;
 
 import group.flyfish.fluent.chain.SQLSegment;
+import group.flyfish.fluent.utils.sql.SQLShape;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -24,4 +25,10 @@ public enum ConcatCandidate implements SQLSegment {
     public String get() {
         return name();
     }
+
+    @Override
+    public boolean describe(SQLShape shape) {
+        shape.add(this);
+        return true;
+    }
 }
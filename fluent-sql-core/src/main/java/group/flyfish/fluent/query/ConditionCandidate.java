@@ -1,58 +1,147 @@
 package group.flyfish.fluent.query;
 
-import group.flyfish.fluent.utils.text.TemplateCompiler;
 import lombok.Getter;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * 查询条件候选模板
+ * 每个候选携带直接的输出逻辑，渲染时将列、操作符和占位符写入同一个缓冲区
  *
  * @author wangyu
  */
 @Getter
 enum ConditionCandidate {
 
-    EQ("字段等于值", "{column} = ?"),
-    NE("字段不等于值", "{column} != ?"),
-    GT("字段大于值", "{column} > ?"),
-    GTE("字段大于等于值", "{column} >= ?"),
-    LT("字段小于值", "{column} < ?"),
-    LTE("字段小于等于值", "{column} <= ?"),
-    LIKE("字段模糊匹配值", "{column} LIKE CONCAT('%', ?, '%')"),
-    LIKE_LEFT("字段匹配左半部分值", "{column} LIKE CONCAT(?, '%')"),
-    LIKE_RIGHT("字段匹配右半部分值", "{column} LIKE CONCAT('%', ?)"),
-    IN("字段在值列表内", "{column} IN ({?})", ConditionCandidate::multiple),
-    NIN("字段不在值列表内", "{column} NOT IN ({?))", ConditionCandidate::multiple),
-    NOT_NULL("字段不为空", "{column} IS NOT NULL"),
-    IS_NULL("字段为空", "{column} IS NULL"),
-    BETWEEN("字段介于列表下标0和1的值之间", "{column} BETWEEN ? and ?"),
-    DATE_GTE("日期字段大于值", "{column} > ?"),
-    DATE_LTE("日期字段小于值", "{column} < ?");
+    EQ("字段等于值", (sb, column, value) -> sb.append(column).append(" = ").append(value)),
+    NE("字段不等于值", (sb, column, value) -> sb.append(column).append(" != ").append(value)),
+    GT("字段大于值", (sb, column, value) -> sb.append(column).append(" > ").append(value)),
+    GTE("字段大于等于值", (sb, column, value) -> sb.append(column).append(" >= ").append(value)),
+    LT("字段小于值", (sb, column, value) -> sb.append(column).append(" < ").append(value)),
+    LTE("字段小于等于值", (sb, column, value) -> sb.append(column).append(" <= ").append(value)),
+    LIKE("字段模糊匹配值", (sb, column, value) -> sb.append(column).append(" LIKE CONCAT('%', ").append(value).append(", '%')")),
+    LIKE_LEFT("字段匹配左半部分值", (sb, column, value) -> sb.append(column).append(" LIKE CONCAT(").append(value).append(", '%')")),
+    LIKE_RIGHT("字段匹配右半部分值", (sb, column, value) -> sb.append(column).append(" LIKE CONCAT('%', ").append(value).append(')')),
+    IN("字段在值列表内", (sb, column, value) -> sb.append(column).append(" IN (").append(value).append(')'), true),
+    NIN("字段不在值列表内", (sb, column, value) -> sb.append(column).append(" NOT IN (").append(value).append(')'), true),
+    NOT_NULL("字段不为空", (sb, column, value) -> sb.append(column).append(" IS NOT NULL")),
+    IS_NULL("字段为空", (sb, column, value) -> sb.append(column).append(" IS NULL")),
+    BETWEEN("字段介于列表下标0和1的值之间", (sb, column, value) -> sb.append(column).append(" BETWEEN ").append(value).append(" and ").append(value)),
+    DATE_GTE("日期字段大于值", (sb, column, value) -> sb.append(column).append(" > ").append(value)),
+    DATE_LTE("日期字段小于值", (sb, column, value) -> sb.append(column).append(" < ").append(value));
+
+    // 单个占位符
+    private static final String PLACEHOLDER = "?";
+
+    // 多值占位符缓存，下标为值的数量
+    private static final String[] PLACEHOLDERS = new String[256];
 
     private final String name;
 
-    private final TemplateCompiler.DynamicValue template;
+    private final Emitter emitter;
 
-    private final Function<Object, ?> mapper;
+    // 是否为多值占位
+    private final boolean multiple;
 
-    ConditionCandidate(String name, String template) {
-        this(name, template, null);
+    ConditionCandidate(String name, Emitter emitter) {
+        this(name, emitter, false);
     }
 
-    ConditionCandidate(String name, String template, Function<Object, ?> mapper) {
+    ConditionCandidate(String name, Emitter emitter, boolean multiple) {
         this.name = name;
-        this.template = TemplateCompiler.compile(template);
-        this.mapper = mapper;
+        this.emitter = emitter;
+        this.multiple = multiple;
+    }
+
+    /**
+     * 获取指定数量的占位符，形如 "?, ?, ?"
+     * 常用数量的结果会被缓存，并发下重复计算的结果一致，无需加锁
+     *
+     * @param size 数量
+     * @return 占位符
+     */
+    static String placeholders(int size) {
+        if (size <= 1) {
+            return PLACEHOLDER;
+        }
+        if (size >= PLACEHOLDERS.length) {
+            return buildPlaceholders(size);
+        }
+        String cached = PLACEHOLDERS[size];
+        if (null == cached) {
+            cached = buildPlaceholders(size);
+            PLACEHOLDERS[size] = cached;
+        }
+        return cached;
+    }
+
+    private static String buildPlaceholders(int size) {
+        StringBuilder sb = new StringBuilder(size * 3);
+        sb.append(PLACEHOLDER);
+        for (int i = 1; i < size; i++) {
+            sb.append(", ").append(PLACEHOLDER);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 根据值取得占位符
+     *
+     * @param value 值
+     * @return 占位符
+     */
+    String placeholder(Object value) {
+        if (multiple && value instanceof Collection) {
+            return placeholders(((Collection<?>) value).size());
+        }
+        return PLACEHOLDER;
+    }
+
+    /**
+     * 将条件直接写入缓冲区
+     *
+     * @param sb          缓冲区
+     * @param column      列名
+     * @param placeholder 占位符，或引用的列名
+     */
+    void appendTo(StringBuilder sb, String column, String placeholder) {
+        emitter.emit(sb, column, placeholder);
     }
 
-    private static String multiple(Object value) {
-        return value instanceof Collection ?
-                ((Collection<?>) value).stream().map(v -> "?").collect(Collectors.joining(", ")) : "?";
+    /**
+     * 写入分桶后的多值条件，多组之间以OR连接，NOT IN时以AND连接
+     *
+     * @param sb     缓冲区
+     * @param column 列名
+     * @param values 分桶后的值列表
+     */
+    void appendTo(StringBuilder sb, String column, InList values) {
+        InList.Layout layout = values.getLayout();
+        if (layout.groupCount() == 1) {
+            appendTo(sb, column, placeholders(layout.lastSize()));
+            return;
+        }
+        sb.append('(');
+        for (int i = 0; i < layout.groupCount(); i++) {
+            if (i > 0) {
+                sb.append(this == NIN ? " AND " : " OR ");
+            }
+            appendTo(sb, column, placeholders(layout.sizeOf(i)));
+        }
+        sb.append(')');
+    }
+
+    /**
+     * 取得值对sql文本的影响，用于结构指纹
+     *
+     * @param value 值
+     * @return 占位符数量或分组布局
+     */
+    Object layout(Object value) {
+        if (value instanceof InList) {
+            return ((InList) value).getLayout();
+        }
+        return placeholder(value).length();
     }
 
     /**
@@ -63,10 +152,24 @@ enum ConditionCandidate {
      * @return 结果
      */
     public String compile(String field, Object value) {
-        Map<String, Object> params = new HashMap<>();
-        params.put("column", field);
-        params.put("value", value);
-        params.put("?", null != mapper ? mapper.apply(value) : "?");
-        return template.apply(params);
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb, field, placeholder(value));
+        return sb.toString();
+    }
+
+    /**
+     * 条件输出逻辑
+     */
+    @FunctionalInterface
+    interface Emitter {
+
+        /**
+         * 输出条件
+         *
+         * @param sb     缓冲区
+         * @param column 列名
+         * @param value  占位符或引用列名
+         */
+        void emit(StringBuilder sb, String column, String value);
     }
 }
@@ -0,0 +1,125 @@
+package group.flyfish.fluent.query;
+
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+
+/**
+ * IN列表分桶
+ * 默认每个元素对应一个占位符，不同长度的列表会产生不同的sql，导致驱动和数据库的预编译缓存失效
+ * 开启后列表长度向上补齐到最近的档位（默认为1、2、4、8…），以最后一个值重复填充；
+ * 超过上限的列表拆分为多组，以OR连接（NOT IN时以AND连接）
+ * <p>
+ * 默认关闭，需要时在启动阶段调用 {@link #enable()} 开启
+ *
+ * @author wangyu
+ */
+public final class InBucketing {
+
+    // 默认单组上限，与多数数据库的IN列表限制保持一致
+    private static final int DEFAULT_MAX_SIZE = 1000;
+
+    // 当前配置，为空代表关闭
+    private static volatile Config config;
+
+    private InBucketing() {
+    }
+
+    /**
+     * 以2的幂为档位开启，单组上限1000
+     */
+    public static void enable() {
+        enable(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * 以2的幂为档位开启
+     *
+     * @param maxSize 单组上限
+     */
+    public static void enable(int maxSize) {
+        Assert.isTrue(maxSize > 0, "单组上限必须大于0！");
+        config = new Config(maxSize, null);
+    }
+
+    /**
+     * 以自定义档位开启
+     *
+     * @param maxSize 单组上限
+     * @param ladder  升序排列的档位，超过最大档位的列表补齐到单组上限
+     */
+    public static void enable(int maxSize, int... ladder) {
+        Assert.isTrue(maxSize > 0, "单组上限必须大于0！");
+        Assert.isTrue(null != ladder && ladder.length > 0, "档位不可为空！");
+        for (int i = 0; i < ladder.length; i++) {
+            Assert.isTrue(ladder[i] > 0 && ladder[i] <= maxSize, "档位必须大于0且不超过单组上限！");
+            Assert.isTrue(i == 0 || ladder[i] > ladder[i - 1], "档位必须严格升序！");
+        }
+        config = new Config(maxSize, ladder.clone());
+    }
+
+    /**
+     * 关闭分桶
+     */
+    public static void disable() {
+        config = null;
+    }
+
+    /**
+     * @return 是否开启
+     */
+    public static boolean enabled() {
+        return null != config;
+    }
+
+    /**
+     * 按当前配置补齐和拆分列表，未开启或列表为空时原样返回
+     *
+     * @param values 值列表
+     * @return 结果
+     */
+    static Collection<?> apply(Collection<?> values) {
+        Config current = config;
+        if (null == current || null == values || values.isEmpty()) {
+            return values;
+        }
+        int size = values.size();
+        int groupSize = Math.min(size, current.maxSize);
+        int groupCount = (size + groupSize - 1) / groupSize;
+        int remainder = size - (groupCount - 1) * groupSize;
+        // 仅有一组时整组分桶，否则完整的组保持上限，只有最后一组分桶
+        int lastSize = groupCount == 1 ? current.bucket(size) : current.bucket(remainder);
+        if (groupCount == 1) {
+            groupSize = lastSize;
+        }
+        return new InList(values.toArray(), groupCount, groupSize, lastSize);
+    }
+
+    /**
+     * 分桶配置
+     *
+     * @param maxSize 单组上限
+     * @param ladder  档位，为空时使用2的幂
+     */
+    private record Config(int maxSize, int[] ladder) {
+
+        /**
+         * 取得不小于给定长度的档位
+         *
+         * @param size 长度
+         * @return 档位
+         */
+        private int bucket(int size) {
+            if (null == ladder) {
+                int bucket = size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+                return bucket <= 0 ? maxSize : Math.min(bucket, maxSize);
+            }
+            for (int step : ladder) {
+                if (step >= size) {
+                    return step;
+                }
+            }
+            return maxSize;
+        }
+    }
+}
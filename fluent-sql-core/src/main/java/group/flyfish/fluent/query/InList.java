@@ -0,0 +1,68 @@
+package group.flyfish.fluent.query;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * 分桶后的IN值列表
+ * 原始值以最后一个值补齐到分桶长度，按组依次排列，作为参数时与占位符一一对应
+ *
+ * @author wangyu
+ */
+final class InList extends AbstractList<Object> implements RandomAccess {
+
+    // 原始值
+    private final Object[] values;
+
+    // 补齐后的长度
+    private final int size;
+
+    // 分组布局
+    private final Layout layout;
+
+    InList(Object[] values, int groupCount, int groupSize, int lastSize) {
+        this.values = values;
+        this.size = (groupCount - 1) * groupSize + lastSize;
+        this.layout = new Layout(groupCount, groupSize, lastSize);
+    }
+
+    /**
+     * 补齐的部分重复最后一个值
+     *
+     * @param index 下标
+     * @return 值
+     */
+    @Override
+    public Object get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return values[Math.min(index, values.length - 1)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 分组布局，决定sql文本
+     */
+    Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * 分组布局
+     *
+     * @param groupCount 组数
+     * @param groupSize  除最后一组外每组的长度
+     * @param lastSize   最后一组的长度
+     */
+    record Layout(int groupCount, int groupSize, int lastSize) {
+
+        int sizeOf(int group) {
+            return group == groupCount - 1 ? lastSize : groupSize;
+        }
+    }
+}
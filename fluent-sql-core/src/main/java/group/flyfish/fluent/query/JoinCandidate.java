@@ -1,6 +1,7 @@
 package group.flyfish.fluent.query;
 
 import group.flyfish.fluent.chain.SQLSegment;
+import group.flyfish.fluent.utils.sql.SQLShape;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -23,4 +24,10 @@ public enum JoinCandidate implements SQLSegment {
     public String get() {
         return content;
     }
+
+    @Override
+    public boolean describe(SQLShape shape) {
+        shape.add(this);
+        return true;
+    }
 }
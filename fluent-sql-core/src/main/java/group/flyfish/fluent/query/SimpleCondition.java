@@ -1,7 +1,7 @@
 package group.flyfish.fluent.query;
 
-import group.flyfish.fluent.utils.sql.EntityNameUtils;
 import group.flyfish.fluent.utils.sql.SFunction;
+import group.flyfish.fluent.utils.sql.SQLShape;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
 
@@ -53,12 +53,45 @@ class SimpleCondition implements Condition {
      */
     @Override
     public String get() {
-        String compiled = candidate.compile(target.getName(), value);
-        // 值属于引用时，替换参数为引用
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * 直接写入缓冲区
+     *
+     * @param sb 缓冲区
+     */
+    @Override
+    public void appendTo(StringBuilder sb) {
+        if (value instanceof InList) {
+            candidate.appendTo(sb, target.getName(), (InList) value);
+            return;
+        }
+        // 值属于引用时，使用引用代替占位符
+        String placeholder = value instanceof SFunction ?
+                ((SFunction<?, ?>) value).getName() : candidate.placeholder(value);
+        candidate.appendTo(sb, target.getName(), placeholder);
+    }
+
+    /**
+     * 结构为列引用、候选和占位符数量，引用其他字段时为该字段的列引用
+     *
+     * @param shape 结构指纹
+     * @return 是否描述成功
+     */
+    @Override
+    public boolean describe(SQLShape shape) {
+        if (!target.describe(shape)) {
+            return false;
+        }
+        shape.add(candidate);
         if (value instanceof SFunction) {
-            return compiled.replace("?", EntityNameUtils.toName(cast(value)));
+            return ((SFunction<?, ?>) value).describe(shape);
         }
-        return compiled;
+        shape.add(candidate.layout(value));
+        return true;
     }
 
     /**
@@ -178,7 +211,7 @@ class SimpleCondition implements Condition {
      */
     @Override
     public Query in(Collection<?> collection) {
-        this.value = collection;
+        this.value = InBucketing.apply(collection);
         this.candidate = ConditionCandidate.IN;
         return callback.apply(this);
     }
@@ -3,13 +3,12 @@ package group.flyfish.fluent.query;
 import group.flyfish.fluent.chain.SQLSegment;
 import group.flyfish.fluent.utils.sql.ConcatSegment;
 import group.flyfish.fluent.utils.sql.SFunction;
+import group.flyfish.fluent.utils.sql.SQLShape;
 import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static group.flyfish.fluent.query.ConcatCandidate.AND;
 import static group.flyfish.fluent.query.ConcatCandidate.OR;
@@ -24,14 +23,17 @@ class SimpleQuery extends ConcatSegment<SimpleQuery> implements Query {
     // 参数源
     private final Collection<Object> parameters = new ArrayList<>();
 
+    // 结构指纹，随条件的添加逐步记录，条件本身在生成缓存键时描述
+    private final SQLShape shape = new SQLShape();
+
     /**
-     * @return 得到sql片段
+     * 嵌套在主链中渲染，不处理上下文
+     *
+     * @param sb 缓冲区
      */
     @Override
-    public String get() {
-        return segments.stream().map(SQLSegment::get)
-                .filter(Objects::nonNull)
-                .collect(Collectors.joining(" "));
+    public void appendTo(StringBuilder sb) {
+        appendSegments(sb);
     }
 
     /**
@@ -81,6 +83,7 @@ class SimpleQuery extends ConcatSegment<SimpleQuery> implements Query {
             return this;
         }
         addParameters(condition);
+        appendShape(AND, condition);
         return concat(AND).concat(condition);
     }
 
@@ -96,6 +99,7 @@ class SimpleQuery extends ConcatSegment<SimpleQuery> implements Query {
             return this;
         }
         addParameters(query);
+        appendShape(AND, query);
         return concat(AND).concat(query);
     }
 
@@ -133,6 +137,7 @@ class SimpleQuery extends ConcatSegment<SimpleQuery> implements Query {
             return this;
         }
         addParameters(condition);
+        appendShape(OR, condition);
         return concat(OR).concat(condition);
     }
 
@@ -148,9 +153,34 @@ class SimpleQuery extends ConcatSegment<SimpleQuery> implements Query {
             return this;
         }
         addParameters(query);
+        appendShape(OR, query);
         return concat(OR).concat(query);
     }
 
+    /**
+     * 结构在构建时已逐步记录，直接合并
+     *
+     * @param shape 结构指纹
+     * @return 是否描述成功
+     */
+    @Override
+    public boolean describe(SQLShape shape) {
+        return shape.merge(this.shape);
+    }
+
+    /**
+     * 记录新增片段的结构，与拼接规则一致，首个片段前的连接符会被忽略
+     *
+     * @param candidate 连接符
+     * @param segment   片段
+     */
+    private void appendShape(ConcatCandidate candidate, SQLSegment segment) {
+        if (!segments.isEmpty()) {
+            shape.add(candidate);
+        }
+        shape.defer(segment);
+    }
+
     /**
      * 添加参数
      *
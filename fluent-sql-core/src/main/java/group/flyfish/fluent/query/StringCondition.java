@@ -2,6 +2,7 @@ package group.flyfish.fluent.query;
 
 import group.flyfish.fluent.utils.context.AliasComposite;
 import group.flyfish.fluent.utils.sql.SFunction;
+import group.flyfish.fluent.utils.sql.SQLShape;
 import group.flyfish.fluent.utils.sql.SqlNameUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
@@ -49,12 +50,30 @@ class StringCondition implements Condition {
 
     @Override
     public String get() {
-        String qualified = qualify(column);
-        String compiled = candidate.compile(qualified, value);
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    @Override
+    public void appendTo(StringBuilder sb) {
+        if (value instanceof InList) {
+            candidate.appendTo(sb, qualify(column), (InList) value);
+            return;
+        }
+        String placeholder = value instanceof SFunction ?
+                ((SFunction<?, ?>) value).getName() : candidate.placeholder(value);
+        candidate.appendTo(sb, qualify(column), placeholder);
+    }
+
+    @Override
+    public boolean describe(SQLShape shape) {
+        shape.add(column).add(candidate);
         if (value instanceof SFunction) {
-            return compiled.replace("?", ((SFunction<?, ?>) value).getName());
+            return ((SFunction<?, ?>) value).describe(shape);
         }
-        return compiled;
+        shape.add(candidate.layout(value));
+        return true;
     }
 
     private String qualify(String raw) {
@@ -141,7 +160,7 @@ class StringCondition implements Condition {
 
     @Override
     public Query in(Collection<?> collection) {
-        this.value = collection;
+        this.value = InBucketing.apply(collection);
         this.candidate = ConditionCandidate.IN;
         return callback.apply(this);
     }
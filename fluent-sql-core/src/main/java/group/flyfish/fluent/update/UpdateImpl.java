@@ -4,6 +4,7 @@ import group.flyfish.fluent.chain.SQLSegment;
 import group.flyfish.fluent.chain.update.AfterSetSqlChain;
 import group.flyfish.fluent.utils.sql.ConcatSegment;
 import group.flyfish.fluent.utils.sql.SFunction;
+import group.flyfish.fluent.utils.sql.SQLShape;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
@@ -11,9 +12,7 @@ import org.springframework.util.ObjectUtils;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * 更新实现
@@ -31,6 +30,9 @@ public class UpdateImpl implements Update {
     // 片段
     private final List<SQLSegment> segments = new ArrayList<>();
 
+    // 结构指纹
+    private final SQLShape shape = new SQLShape();
+
     /**
      * 设置值，来自具体值
      *
@@ -45,6 +47,7 @@ public class UpdateImpl implements Update {
         }
         this.parameters.add(value);
         segments.add(new UpdatePart().concat(target::getName).concat("=").concat("?"));
+        shape.describe(target);
         return this;
     }
 
@@ -58,6 +61,10 @@ public class UpdateImpl implements Update {
     @Override
     public <T, V> Update set(SFunction<T, ?> target, SFunction<V, ?> source) {
         segments.add(new UpdatePart().concat(target::getName).concat("=").concat(source::getName));
+        if (shape.describe(target)) {
+            shape.add('=');
+            shape.describe(source);
+        }
         return this;
     }
 
@@ -76,9 +83,30 @@ public class UpdateImpl implements Update {
      */
     @Override
     public String get() {
-        return segments.stream().map(SQLSegment::get)
-                .filter(Objects::nonNull)
-                .collect(Collectors.joining(", "));
+        StringBuilder sb = new StringBuilder(segments.size() << 4);
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * 将所有设置项写入缓冲区
+     *
+     * @param sb 缓冲区
+     */
+    @Override
+    public void appendTo(StringBuilder sb) {
+        SQLSegment.join(sb, segments, ", ");
+    }
+
+    /**
+     * 结构在设置时逐项记录
+     *
+     * @param shape 结构指纹
+     * @return 是否描述成功
+     */
+    @Override
+    public boolean describe(SQLShape shape) {
+        return shape.merge(this.shape);
     }
 
     /**
@@ -103,13 +131,13 @@ public class UpdateImpl implements Update {
     private static class UpdatePart extends ConcatSegment<UpdatePart> implements SQLSegment {
 
         /**
-         * @return 得到sql片段
+         * 嵌套渲染，不处理上下文
+         *
+         * @param sb 缓冲区
          */
         @Override
-        public String get() {
-            return this.segments.stream().map(SQLSegment::get)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.joining(" "));
+        public void appendTo(StringBuilder sb) {
+            appendSegments(sb);
         }
     }
 }
@@ -0,0 +1,452 @@
+package group.flyfish.fluent.utils.cache;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * 并发有界缓存
+ * 组件内部各处的缓存统一基于该实现，读取无锁，容量以条目数或权重限定
+ * <p>
+ * 淘汰策略参考 W-TinyLFU：新条目先进入容量约1%的窗口区，溢出后进入主区的试用段，
+ * 再次命中时晋升到保护段；主区满时由频率草图比较候选者与受害者的访问频率，频率低者被淘汰，
+ * 从而避免一次性扫描冲掉热点条目
+ * <p>
+ * 访问顺序和频率的维护在淘汰锁内进行，读取时仅尝试获取锁，锁被占用则放弃本次记录，不会阻塞
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author wangyu
+ */
+public final class ConcurrentCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+
+    private final FrequencySketch sketch;
+
+    // 三个访问队列，下标为区域
+    private final AccessQueue<K, V>[] queues;
+
+    private final long maximumWeight;
+
+    private final long windowMaximum;
+
+    private final long protectedMaximum;
+
+    // 以下字段受淘汰锁保护
+    private long weight;
+
+    private long windowWeight;
+
+    private long protectedWeight;
+
+    // 统计
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentCache(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher) {
+        Assert.isTrue(maximumWeight > 0, "缓存容量必须大于0！");
+        Assert.notNull(weigher, "权重计算器不可为空！");
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (long) ((maximumWeight - windowMaximum) * 0.8);
+        this.sketch = new FrequencySketch();
+        this.queues = new AccessQueue[]{new AccessQueue<>(), new AccessQueue<>(), new AccessQueue<>()};
+    }
+
+    /**
+     * 按条目数限定的缓存
+     *
+     * @param maximumSize 最大条目数
+     * @param <K>         键类型
+     * @param <V>         值类型
+     * @return 结果
+     */
+    public static <K, V> ConcurrentCache<K, V> of(long maximumSize) {
+        return new ConcurrentCache<>(maximumSize, (k, v) -> 1);
+    }
+
+    /**
+     * 按权重限定的缓存
+     *
+     * @param maximumWeight 最大总权重
+     * @param weigher       单个条目的权重，不可为负数
+     * @param <K>           键类型
+     * @param <V>           值类型
+     * @return 结果
+     */
+    public static <K, V> ConcurrentCache<K, V> weighted(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher) {
+        return new ConcurrentCache<>(maximumWeight, weigher);
+    }
+
+    /**
+     * 获取缓存值
+     *
+     * @param key 键
+     * @return 值，不存在时返回null
+     */
+    public V get(K key) {
+        Node<K, V> node = data.get(key);
+        if (null == node) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        afterRead(node);
+        return node.value;
+    }
+
+    /**
+     * 获取缓存值，不存在时计算并放入
+     * 同一个键并发访问时只会计算一次，计算逻辑中不可访问当前缓存
+     *
+     * @param key      键
+     * @param computer 计算逻辑，返回null时不缓存
+     * @return 值
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> computer) {
+        Node<K, V> node = data.get(key);
+        if (null != node) {
+            hits.increment();
+            afterRead(node);
+            return node.value;
+        }
+        misses.increment();
+        Node<K, V>[] created = newNodeHolder();
+        node = data.computeIfAbsent(key, k -> {
+            V value = computer.apply(k);
+            return null == value ? null : (created[0] = new Node<>(k, value, weigher.applyAsInt(k, value)));
+        });
+        if (null == node) {
+            return null;
+        }
+        if (null != created[0]) {
+            afterWrite(node);
+        } else {
+            afterRead(node);
+        }
+        return node.value;
+    }
+
+    /**
+     * 放入缓存
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(K key, V value) {
+        Assert.notNull(value, "缓存值不可为空！");
+        Node<K, V> node = new Node<>(key, value, weigher.applyAsInt(key, value));
+        Node<K, V> previous = data.put(key, node);
+        evictionLock.lock();
+        try {
+            if (null != previous) {
+                retire(previous);
+            }
+            if (data.get(key) == node) {
+                link(node);
+                evict();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 移除缓存
+     *
+     * @param key 键
+     * @return 被移除的值
+     */
+    public V remove(K key) {
+        Node<K, V> node = data.remove(key);
+        if (null == node) {
+            return null;
+        }
+        evictionLock.lock();
+        try {
+            retire(node);
+        } finally {
+            evictionLock.unlock();
+        }
+        return node.value;
+    }
+
+    /**
+     * 清空缓存，统计数据保留
+     */
+    public void clear() {
+        evictionLock.lock();
+        try {
+            for (Node<K, V> node : data.values()) {
+                retire(node);
+            }
+            data.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * @return 当前条目数
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * @return 当前总权重
+     */
+    public long weight() {
+        evictionLock.lock();
+        try {
+            return weight;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * @return 命中、未命中和淘汰的统计快照
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<K, V>[] newNodeHolder() {
+        return new Node[1];
+    }
+
+    /**
+     * 读取后记录访问，锁被占用时放弃，保证读取不阻塞
+     */
+    private void afterRead(Node<K, V> node) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(node.key);
+            if (node.linked) {
+                onAccess(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 写入后登记节点并按需淘汰
+     */
+    private void afterWrite(Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            // 写入与移除并发时，节点可能已经不在映射中
+            if (data.get(node.key) == node) {
+                link(node);
+                evict();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 访问时调整顺序，试用段的条目晋升到保护段
+     */
+    private void onAccess(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW, PROTECTED -> queues[node.queue].moveToBack(node);
+            default -> {
+                queues[PROBATION].remove(node);
+                node.queue = PROTECTED;
+                queues[PROTECTED].add(node);
+                protectedWeight += node.weight;
+                // 保护段溢出时降级最久未访问的条目
+                while (protectedWeight > protectedMaximum && queues[PROTECTED].size > 1) {
+                    Node<K, V> demoted = queues[PROTECTED].poll();
+                    protectedWeight -= demoted.weight;
+                    demoted.queue = PROBATION;
+                    queues[PROBATION].add(demoted);
+                }
+            }
+        }
+    }
+
+    private void link(Node<K, V> node) {
+        // 草图按条目数而不是权重扩容，权重上限很大时也只占用与条目数相当的内存
+        sketch.ensureCapacity(data.size());
+        sketch.increment(node.key);
+        node.queue = WINDOW;
+        node.linked = true;
+        queues[WINDOW].add(node);
+        windowWeight += node.weight;
+        weight += node.weight;
+    }
+
+    private void retire(Node<K, V> node) {
+        if (!node.linked) {
+            return;
+        }
+        queues[node.queue].remove(node);
+        node.linked = false;
+        weight -= node.weight;
+        if (node.queue == WINDOW) {
+            windowWeight -= node.weight;
+        } else if (node.queue == PROTECTED) {
+            protectedWeight -= node.weight;
+        }
+    }
+
+    /**
+     * 淘汰，窗口区溢出的条目作为候选者进入试用段，总权重超限时与试用段最久的受害者比较频率
+     */
+    private void evict() {
+        Node<K, V> candidate = null;
+        while (windowWeight > windowMaximum && queues[WINDOW].size > 0) {
+            Node<K, V> node = queues[WINDOW].poll();
+            windowWeight -= node.weight;
+            node.queue = PROBATION;
+            queues[PROBATION].add(node);
+            if (null == candidate) {
+                candidate = node;
+            }
+        }
+        while (weight > maximumWeight) {
+            Node<K, V> victim = queues[PROBATION].head;
+            if (null == victim) {
+                victim = null != queues[PROTECTED].head ? queues[PROTECTED].head : queues[WINDOW].head;
+            } else if (null != candidate && candidate != victim) {
+                // 候选者频率更高时淘汰受害者，否则淘汰候选者
+                if (sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                    Node<K, V> next = candidate.next;
+                    victim = candidate;
+                    candidate = next;
+                }
+            } else if (candidate == victim) {
+                candidate = candidate.next;
+            }
+            if (null == victim) {
+                return;
+            }
+            retire(victim);
+            data.remove(victim.key, victim);
+            evictions.increment();
+        }
+    }
+
+    /**
+     * 统计快照
+     *
+     * @param hitCount      命中次数
+     * @param missCount     未命中次数
+     * @param evictionCount 淘汰次数
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount) {
+
+        /**
+         * @return 命中率，无请求时为1
+         */
+        public double hitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 1.0 : (double) hitCount / total;
+        }
+    }
+
+    /**
+     * 缓存节点，链表指针受淘汰锁保护
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        private final int weight;
+
+        private Node<K, V> prev;
+
+        private Node<K, V> next;
+
+        private int queue;
+
+        private boolean linked;
+
+        private Node(K key, V value, int weight) {
+            Assert.isTrue(weight >= 0, "缓存权重不可为负数！");
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 访问顺序队列，队首为最久未访问
+     */
+    private static final class AccessQueue<K, V> {
+
+        private Node<K, V> head;
+
+        private Node<K, V> tail;
+
+        private int size;
+
+        private void add(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (null == tail) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        private Node<K, V> poll() {
+            Node<K, V> node = head;
+            if (null != node) {
+                remove(node);
+            }
+            return node;
+        }
+
+        private void remove(Node<K, V> node) {
+            if (null == node.prev) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (null == node.next) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        private void moveToBack(Node<K, V> node) {
+            if (tail != node) {
+                remove(node);
+                add(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package group.flyfish.fluent.utils.cache;
+
+/**
+ * 频率草图
+ * 基于 count-min sketch 的访问频率估算，每个计数器占4位，最大值15
+ * 累计增量达到采样上限后所有计数器减半，使历史热点逐渐老化
+ * 计数器表按实际的条目数扩容，按权重限定的缓存不会因为总权重很大而预先分配大表
+ * <p>
+ * 非线程安全，由 {@link ConcurrentCache} 在淘汰锁内访问
+ *
+ * @author wangyu
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    // 减半后清除每个计数器的最高位
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    // 计数器表的最小和最大长度
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 24;
+
+    private long[] table;
+
+    private int tableMask;
+
+    // 采样上限
+    private int sampleSize;
+
+    // 当前累计增量
+    private int size;
+
+    FrequencySketch() {
+        ensureCapacity(MINIMUM_CAPACITY);
+    }
+
+    /**
+     * 按预计的条目数扩容，已足够时不做处理
+     * 扩容后计数重新开始，表长度按2的幂增长，扩容的次数与条目数成对数关系
+     *
+     * @param expectedSize 预计的条目数
+     */
+    void ensureCapacity(long expectedSize) {
+        int capacity = (int) Math.min(Math.max(expectedSize, MINIMUM_CAPACITY), MAXIMUM_CAPACITY);
+        if (null != table && table.length >= capacity) {
+            return;
+        }
+        this.table = new long[Integer.highestOneBit(capacity - 1) << 1];
+        this.tableMask = table.length - 1;
+        this.sampleSize = 10 * table.length;
+        this.size = 0;
+    }
+
+    /**
+     * 估算频率
+     *
+     * @param e 元素
+     * @return 频率，0 ~ 15
+     */
+    int frequency(Object e) {
+        int hash = spread(e.hashCode());
+        int frequency = 15;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = indexHash(hash, i);
+            int offset = offset(h);
+            int count = (int) ((table[index(h)] >>> offset) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * 增加频率
+     *
+     * @param e 元素
+     */
+    void increment(Object e) {
+        int hash = spread(e.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = indexHash(hash, i);
+            int index = index(h);
+            int offset = offset(h);
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * 所有计数器减半
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size >>>= 1;
+    }
+
+    private long indexHash(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        return h + (h >>> 32);
+    }
+
+    private int index(long h) {
+        return (int) h & tableMask;
+    }
+
+    private int offset(long h) {
+        return (int) ((h >>> 40) & 15L) << 2;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
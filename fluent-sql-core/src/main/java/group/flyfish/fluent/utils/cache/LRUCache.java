@@ -10,11 +10,15 @@ import java.util.Map;
  * 此缓存基于LinkedHashMap，因此当被缓存的对象每被访问一次，这个对象的key就到链表头部。<br>
  * 这个算法简单并且非常快，他比FIFO有一个显著优势是经常使用的对象不太可能被移除缓存。<br>
  * 缺点是当缓存满时，不能被很快的访问。
+ * <p>
+ * 该实现没有任何同步措施，不可在多线程间共享，请使用 {@link ConcurrentCache}
  *
  * @param <K> 键类型
  * @param <V> 值类型
  * @author wangyu
+ * @deprecated 非线程安全，使用 {@link ConcurrentCache} 代替
  */
+@Deprecated
 public class LRUCache<K, V> extends LinkedHashMap<K, V> {
 
     private static final long serialVersionUID = 1L;
@@ -0,0 +1,223 @@
+package group.flyfish.fluent.utils.concurrent;
+
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 组件内部使用的执行器
+ * <ul>
+ *     <li>分页执行器：分页时计数与列表查询并行，计数查询提交到此处</li>
+ *     <li>异步执行器：{@code async()} 模式下的所有查询提交到此处，并发数与连接池大小一致</li>
+ * </ul>
+ * JDK 21 及以上默认使用虚拟线程，否则使用守护线程组成的线程池
+ * 可在启动阶段调用 {@link #setPageExecutor(Executor)}、{@link #setAsyncExecutor(Executor)} 替换
+ *
+ * @author wangyu
+ */
+public final class FluentExecutors {
+
+    // 默认的异步并发上限，与常见连接池的默认大小一致
+    private static final int DEFAULT_ASYNC_CONCURRENCY = 10;
+
+    // 自定义的分页执行器，为空时使用默认执行器
+    private static volatile Executor pageExecutor;
+
+    // 是否并行分页
+    private static volatile boolean concurrentPaging = true;
+
+    // 自定义的异步执行器
+    private static volatile Executor asyncExecutor;
+
+    // 默认的异步执行器，首次使用时创建
+    private static volatile Executor defaultAsyncExecutor;
+
+    // 默认异步执行器的并发上限
+    private static volatile int asyncConcurrency = DEFAULT_ASYNC_CONCURRENCY;
+
+    private FluentExecutors() {
+    }
+
+    /**
+     * @return 分页执行器，关闭并行分页时返回null
+     */
+    public static Executor pageExecutor() {
+        if (!concurrentPaging) {
+            return null;
+        }
+        Executor executor = pageExecutor;
+        return null != executor ? executor : Holder.DEFAULT;
+    }
+
+    /**
+     * 设置分页执行器，同时开启并行分页
+     *
+     * @param executor 执行器
+     */
+    public static void setPageExecutor(Executor executor) {
+        Assert.notNull(executor, "执行器不可为空！");
+        pageExecutor = executor;
+        concurrentPaging = true;
+    }
+
+    /**
+     * 关闭并行分页，计数与列表查询在调用线程顺序执行
+     */
+    public static void disableConcurrentPaging() {
+        concurrentPaging = false;
+    }
+
+    /**
+     * @return 异步执行器
+     */
+    public static Executor asyncExecutor() {
+        Executor executor = asyncExecutor;
+        if (null != executor) {
+            return executor;
+        }
+        executor = defaultAsyncExecutor;
+        if (null == executor) {
+            synchronized (FluentExecutors.class) {
+                executor = defaultAsyncExecutor;
+                if (null == executor) {
+                    defaultAsyncExecutor = executor = newLimitedExecutor(asyncConcurrency);
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 设置异步执行器，设置后并发上限由该执行器自行控制
+     *
+     * @param executor 执行器
+     */
+    public static void setAsyncExecutor(Executor executor) {
+        Assert.notNull(executor, "执行器不可为空！");
+        asyncExecutor = executor;
+    }
+
+    /**
+     * 设置默认异步执行器的并发上限，通常与连接池的最大连接数一致
+     * 超过上限的任务排队等待，避免在连接池上阻塞
+     *
+     * @param concurrency 并发上限
+     */
+    public static void setAsyncConcurrency(int concurrency) {
+        Assert.isTrue(concurrency > 0, "并发上限必须大于0！");
+        synchronized (FluentExecutors.class) {
+            if (concurrency == asyncConcurrency && null != defaultAsyncExecutor) {
+                return;
+            }
+            asyncConcurrency = concurrency;
+            Executor previous = defaultAsyncExecutor;
+            defaultAsyncExecutor = null;
+            // 已提交的任务继续执行完毕
+            if (previous instanceof ExecutorService) {
+                ((ExecutorService) previous).shutdown();
+            }
+        }
+    }
+
+    /**
+     * 创建默认执行器，优先使用虚拟线程
+     *
+     * @param name 线程名前缀
+     * @return 执行器
+     */
+    static ExecutorService newDefaultExecutor(String name) {
+        ExecutorService virtual = newVirtualExecutor();
+        return null != virtual ? virtual : Executors.newCachedThreadPool(new DaemonThreadFactory(name));
+    }
+
+    /**
+     * 创建并发受限的执行器
+     * 虚拟线程每个任务一个线程，通过信号量限制同时运行的数量；否则使用固定大小的线程池
+     *
+     * @param concurrency 并发上限
+     * @return 执行器
+     */
+    static Executor newLimitedExecutor(int concurrency) {
+        ExecutorService virtual = newVirtualExecutor();
+        if (null != virtual) {
+            return new LimitedExecutor(virtual, concurrency);
+        }
+        return Executors.newFixedThreadPool(concurrency, new DaemonThreadFactory("fluent-sql-async-"));
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，编译目标为JDK 17
+     *
+     * @return 执行器，不支持时返回null
+     */
+    private static ExecutorService newVirtualExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 默认分页执行器，首次使用时创建
+     */
+    private static final class Holder {
+
+        private static final ExecutorService DEFAULT = newDefaultExecutor("fluent-sql-page-");
+    }
+
+    /**
+     * 并发受限的执行器，任务在获取许可后才开始运行
+     */
+    private static final class LimitedExecutor implements Executor {
+
+        private final ExecutorService delegate;
+
+        private final Semaphore permits;
+
+        private LimitedExecutor(ExecutorService delegate, int concurrency) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(concurrency);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * 守护线程工厂，避免阻止应用退出
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private final String prefix;
+
+        private DaemonThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
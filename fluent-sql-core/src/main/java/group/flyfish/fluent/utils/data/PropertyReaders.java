@@ -0,0 +1,90 @@
+package group.flyfish.fluent.utils.data;
+
+import group.flyfish.fluent.utils.sql.EntityMetadata;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按属性名读取结果对象的值
+ * 记录类型读取组件的访问器，其他类型读取getter，均没有时退化为实体元数据中的字段，
+ * 因此记录和构造器绑定的不可变类型同样可以读取；访问器在每个类上只解析一次
+ *
+ * @author wangyu
+ */
+public final class PropertyReaders {
+
+    // 属性 -> 访问器
+    private static final ClassValue<Map<String, Method>> READERS = new ClassValue<>() {
+        @Override
+        protected Map<String, Method> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private PropertyReaders() {
+    }
+
+    /**
+     * 属性是否可读
+     *
+     * @param type     类型
+     * @param property 属性名
+     * @return 结果
+     */
+    public static boolean isReadable(Class<?> type, String property) {
+        return READERS.get(type).containsKey(property) || null != EntityMetadata.of(type).getType(property);
+    }
+
+    /**
+     * 读取属性的值
+     *
+     * @param target   对象
+     * @param property 属性名
+     * @return 值
+     */
+    public static Object read(Object target, String property) {
+        Method reader = READERS.get(target.getClass()).get(property);
+        if (null != reader) {
+            return ReflectionUtils.invokeMethod(reader, target);
+        }
+        EntityMetadata metadata = EntityMetadata.of(target.getClass());
+        Assert.notNull(metadata.getType(property), "类型" + target.getClass().getName() + "中不存在属性" + property + "！");
+        return metadata.getValue(target, property);
+    }
+
+    /**
+     * 解析类型的全部访问器
+     *
+     * @param type 类型
+     * @return 属性 -> 访问器
+     */
+    private static Map<String, Method> resolve(Class<?> type) {
+        Map<String, Method> readers = new HashMap<>();
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                readers.put(component.getName(), accessible(component.getAccessor()));
+            }
+        } else {
+            for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(type)) {
+                Method reader = pd.getReadMethod();
+                if (null != reader && Object.class != reader.getDeclaringClass()) {
+                    readers.put(pd.getName(), accessible(reader));
+                }
+            }
+        }
+        return Collections.unmodifiableMap(readers);
+    }
+
+    private static Method accessible(Method method) {
+        ReflectionUtils.makeAccessible(method);
+        return method;
+    }
+}
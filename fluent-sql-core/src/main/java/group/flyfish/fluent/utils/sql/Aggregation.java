@@ -2,32 +2,35 @@ package group.flyfish.fluent.utils.sql;
 
 import group.flyfish.fluent.chain.SQLSegment;
 
-import java.util.function.Supplier;
-
 /**
  * 聚合函数表达式（实现 SQLSegment），支持 as 别名；
- * 使用 Supplier 延迟计算，确保在最终渲染 get() 时解析列名与别名上下文。
+ * 持有函数与列，在最终渲染时解析列名与别名上下文。
  */
 public final class Aggregation implements SQLSegment {
 
-    private final Supplier<String> expressionSupplier;
+    // 函数名称
+    private final String function;
+
+    // 列，可以是方法引用或字符串列名，为空时计数全部
+    private final Object column;
 
     private final String alias;
 
-    private Aggregation(Supplier<String> expressionSupplier, String alias) {
-        this.expressionSupplier = expressionSupplier;
+    private Aggregation(String function, Object column, String alias) {
+        this.function = function;
+        this.column = column;
         this.alias = alias;
     }
 
-    private Aggregation(Supplier<String> expressionSupplier) {
-        this(expressionSupplier, null);
+    private Aggregation(String function, Object column) {
+        this(function, column, null);
     }
 
     /**
      * 设置别名，返回新实例
      */
     public Aggregation as(String alias) {
-        return new Aggregation(this.expressionSupplier, alias);
+        return new Aggregation(this.function, this.column, alias);
     }
 
     /**
@@ -35,57 +38,91 @@ public final class Aggregation implements SQLSegment {
      */
     @Override
     public String get() {
-        String expression = expressionSupplier.get();
-        if (alias == null || alias.isEmpty()) {
-            return expression;
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * 直接写入缓冲区
+     */
+    @Override
+    public void appendTo(StringBuilder sb) {
+        sb.append(function).append('(');
+        if (null == column) {
+            sb.append('1');
+        } else if (column instanceof SFunction) {
+            sb.append(((SFunction<?, ?>) column).getName());
+        } else {
+            sb.append(smartWrap((String) column));
+        }
+        sb.append(')');
+        if (alias != null && !alias.isEmpty()) {
+            sb.append(" as ").append(SqlNameUtils.wrap(alias));
+        }
+    }
+
+    /**
+     * 结构为函数、列和别名
+     */
+    @Override
+    public boolean describe(SQLShape shape) {
+        shape.add(function);
+        if (column instanceof SFunction) {
+            if (!((SFunction<?, ?>) column).describe(shape)) {
+                return false;
+            }
+        } else {
+            shape.add(column);
         }
-        return expression + " as " + SqlNameUtils.wrap(alias);
+        shape.add(alias);
+        return true;
     }
 
     // ---------- 工厂方法（延迟解析） ----------
 
     public static Aggregation countAll() {
-        return new Aggregation(() -> "COUNT(1)");
+        return new Aggregation("COUNT", null);
     }
 
     public static <T> Aggregation count(SFunction<T, ?> column) {
-        return new Aggregation(() -> "COUNT(" + column.getName() + ")");
+        return new Aggregation("COUNT", column);
     }
 
     public static Aggregation count(String column) {
-        return new Aggregation(() -> "COUNT(" + smartWrap(column) + ")");
+        return new Aggregation("COUNT", column);
     }
 
     public static <T> Aggregation sum(SFunction<T, ?> column) {
-        return new Aggregation(() -> "SUM(" + column.getName() + ")");
+        return new Aggregation("SUM", column);
     }
 
     public static Aggregation sum(String column) {
-        return new Aggregation(() -> "SUM(" + smartWrap(column) + ")");
+        return new Aggregation("SUM", column);
     }
 
     public static <T> Aggregation max(SFunction<T, ?> column) {
-        return new Aggregation(() -> "MAX(" + column.getName() + ")");
+        return new Aggregation("MAX", column);
     }
 
     public static Aggregation max(String column) {
-        return new Aggregation(() -> "MAX(" + smartWrap(column) + ")");
+        return new Aggregation("MAX", column);
     }
 
     public static <T> Aggregation min(SFunction<T, ?> column) {
-        return new Aggregation(() -> "MIN(" + column.getName() + ")");
+        return new Aggregation("MIN", column);
     }
 
     public static Aggregation min(String column) {
-        return new Aggregation(() -> "MIN(" + smartWrap(column) + ")");
+        return new Aggregation("MIN", column);
     }
 
     public static <T> Aggregation avg(SFunction<T, ?> column) {
-        return new Aggregation(() -> "AVG(" + column.getName() + ")");
+        return new Aggregation("AVG", column);
     }
 
     public static Aggregation avg(String column) {
-        return new Aggregation(() -> "AVG(" + smartWrap(column) + ")");
+        return new Aggregation("AVG", column);
     }
 
     private static String smartWrap(String identifier) {
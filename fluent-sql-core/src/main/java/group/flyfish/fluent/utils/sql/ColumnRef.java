@@ -0,0 +1,12 @@
+package group.flyfish.fluent.utils.sql;
+
+/**
+ * 列引用，方法引用解析后的不可变结果
+ *
+ * @param entityClass 实体类
+ * @param property    属性名
+ * @param column      列名（未包裹反引号）
+ * @author wangyu
+ */
+public record ColumnRef(Class<?> entityClass, String property, String column) {
+}
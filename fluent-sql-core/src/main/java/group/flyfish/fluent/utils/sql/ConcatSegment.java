@@ -4,9 +4,11 @@ import group.flyfish.fluent.chain.SQLSegment;
 import group.flyfish.fluent.query.ConcatCandidate;
 import group.flyfish.fluent.utils.context.AliasComposite;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * 可连接的片段
@@ -24,15 +26,29 @@ public abstract class ConcatSegment<T extends ConcatSegment<T>> implements SQLSe
     // 上下文
     private final Map<String, Object> ctx = new HashMap<>();
 
+    // 上次渲染的长度，用于预分配缓冲区
+    private int lastLength;
+
     @Override
     public String get() {
+        StringBuilder sb = new StringBuilder(Math.max(lastLength, segments.size() << 4));
+        appendTo(sb);
+        lastLength = sb.length();
+        return sb.toString();
+    }
+
+    /**
+     * 顶层渲染，消费上下文后将所有片段写入同一个缓冲区
+     *
+     * @param sb 缓冲区
+     */
+    @Override
+    public void appendTo(StringBuilder sb) {
         try {
             // 提前消费上下文
             consumeCtx();
             // 开始拼接所有片段
-            return segments.stream().map(SQLSegment::get)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.joining(" "));
+            appendSegments(sb);
         } finally {
             // 清理上下文
             ctx.clear();
@@ -41,6 +57,15 @@ public abstract class ConcatSegment<T extends ConcatSegment<T>> implements SQLSe
         }
     }
 
+    /**
+     * 以空格拼接所有片段，不处理上下文，供嵌套片段使用
+     *
+     * @param sb 缓冲区
+     */
+    protected void appendSegments(StringBuilder sb) {
+        SQLSegment.join(sb, segments, " ");
+    }
+
     /**
      * 设置上下文，本质上会添加一个空的片段用于生效上下文
      *
@@ -109,5 +134,10 @@ public abstract class ConcatSegment<T extends ConcatSegment<T>> implements SQLSe
         public String get() {
             return content;
         }
+
+        @Override
+        public void appendTo(StringBuilder sb) {
+            sb.append(content);
+        }
     }
 }
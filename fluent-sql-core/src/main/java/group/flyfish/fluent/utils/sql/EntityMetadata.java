@@ -0,0 +1,256 @@
+package group.flyfish.fluent.utils.sql;
+
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.Column;
+import javax.persistence.Transient;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import static group.flyfish.fluent.utils.sql.SqlNameUtils.wrap;
+
+/**
+ * 实体元数据
+ * 表名、列映射、排除的临时字段和包裹后的标识符在每个类上只计算一次，
+ * 注册表基于 {@link ClassValue}，并发访问时保证每个类只保留一份结果，且随类卸载而释放
+ *
+ * @author wangyu
+ */
+public final class EntityMetadata {
+
+    private static final String JPA_TABLE = "javax.persistence.Table";
+    private static final String SPRING_DATA_TABLE = "org.springframework.data.relational.core.mapping.Table";
+    private static final String TRANSIENT_ANNOTATION = "org.springframework.data.annotation.Transient";
+    private static final String JPA_ID = "javax.persistence.Id";
+    private static final String SPRING_DATA_ID = "org.springframework.data.annotation.Id";
+    private static final String JPA_GENERATED_VALUE = "javax.persistence.GeneratedValue";
+
+    // 元数据注册表
+    private static final ClassValue<EntityMetadata> REGISTRY = new ClassValue<>() {
+        @Override
+        protected EntityMetadata computeValue(Class<?> type) {
+            return new EntityMetadata(type);
+        }
+    };
+
+    private final Class<?> entityClass;
+
+    // 表名
+    private final String tableName;
+
+    // 属性 -> 列名
+    private final Map<String, String> columns;
+
+    // 属性 -> 包裹后的列名
+    private final Map<String, String> quotedColumns;
+
+    // 被排除的临时字段
+    private final Set<String> excluded;
+
+    // 属性 -> 字段，已设置为可访问
+    private final Map<String, Field> fields;
+
+    // 列名 -> 属性
+    private final Map<String, String> properties;
+
+    // 主键属性
+    private final Set<String> ids;
+
+    // 由数据库生成值的属性
+    private final Set<String> generated;
+
+    private EntityMetadata(Class<?> entityClass) {
+        this.entityClass = entityClass;
+        this.tableName = resolveTableName(entityClass);
+        Map<String, String> columns = new LinkedHashMap<>();
+        Map<String, String> quotedColumns = new HashMap<>();
+        Set<String> excluded = new HashSet<>();
+        Map<String, Field> fields = new HashMap<>();
+        Map<String, String> properties = new HashMap<>();
+        Set<String> ids = new HashSet<>();
+        Set<String> generated = new HashSet<>();
+        ReflectionUtils.doWithFields(entityClass, field -> {
+            if (isField(field)) {
+                MergedAnnotations annotations = MergedAnnotations.from(field);
+                if (annotations.isPresent(JPA_ID) || annotations.isPresent(SPRING_DATA_ID)) {
+                    ids.add(field.getName());
+                }
+                if (annotations.isPresent(JPA_GENERATED_VALUE)) {
+                    generated.add(field.getName());
+                }
+                String column = resolveFinalName(field);
+                columns.put(field.getName(), column);
+                quotedColumns.put(field.getName(), wrap(column));
+                properties.putIfAbsent(column, field.getName());
+                ReflectionUtils.makeAccessible(field);
+                fields.putIfAbsent(field.getName(), field);
+            } else if (!Modifier.isStatic(field.getModifiers())) {
+                excluded.add(field.getName());
+            }
+        });
+        this.columns = Collections.unmodifiableMap(columns);
+        this.quotedColumns = Collections.unmodifiableMap(quotedColumns);
+        this.excluded = Collections.unmodifiableSet(excluded);
+        this.fields = fields;
+        this.properties = properties;
+        this.ids = Collections.unmodifiableSet(ids);
+        this.generated = Collections.unmodifiableSet(generated);
+    }
+
+    /**
+     * 获取实体的元数据，首次访问时计算
+     *
+     * @param entityClass 实体类
+     * @return 元数据
+     */
+    public static EntityMetadata of(Class<?> entityClass) {
+        return REGISTRY.get(entityClass);
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return 表名
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * @return 属性 -> 列名，不可修改
+     */
+    public Map<String, String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return 被排除的临时字段
+     */
+    public Set<String> getExcluded() {
+        return excluded;
+    }
+
+    /**
+     * @return 主键属性，标注了 javax.persistence.Id 或 spring data Id
+     */
+    public Set<String> getIds() {
+        return ids;
+    }
+
+    /**
+     * 属性的值是否由数据库生成，即标注了 javax.persistence.GeneratedValue
+     *
+     * @param property 属性名
+     * @return 结果
+     */
+    public boolean isGenerated(String property) {
+        return generated.contains(property);
+    }
+
+    /**
+     * 获取属性对应的列名，未映射的属性按下划线规则转换
+     *
+     * @param property 属性名
+     * @return 列名
+     */
+    public String getColumn(String property) {
+        String column = columns.get(property);
+        return null != column ? column : SqlNameUtils.camelToUnderline(property);
+    }
+
+    /**
+     * 获取属性对应的包裹后的列名
+     *
+     * @param property 属性名
+     * @return 包裹后的列名
+     */
+    public String getQuotedColumn(String property) {
+        String quoted = quotedColumns.get(property);
+        return null != quoted ? quoted : wrap(getColumn(property));
+    }
+
+    /**
+     * 根据列名反查属性
+     *
+     * @param column 列名，不含包裹符号
+     * @return 属性名，未映射时返回null
+     */
+    public String getProperty(String column) {
+        return properties.get(column);
+    }
+
+    /**
+     * 取得属性的声明类型
+     *
+     * @param property 属性名
+     * @return 类型，未映射时返回null
+     */
+    public Class<?> getType(String property) {
+        Field field = fields.get(property);
+        return null == field ? null : field.getType();
+    }
+
+    /**
+     * 直接读取实体字段的值
+     *
+     * @param entity   实体
+     * @param property 属性名
+     * @return 值
+     */
+    public Object getValue(Object entity, String property) {
+        Field field = fields.get(property);
+        Assert.notNull(field, "实体" + entityClass.getName() + "中不存在属性" + property + "！");
+        return ReflectionUtils.getField(field, entity);
+    }
+
+    /**
+     * 从一个实体类中取得表名
+     *
+     * @param entityClass 实体类
+     * @return 结果
+     */
+    private static String resolveTableName(Class<?> entityClass) {
+        MergedAnnotations annotations = MergedAnnotations.from(entityClass);
+        if (annotations.isPresent(JPA_TABLE)) {
+            String tableName = annotations.get(JPA_TABLE).getString("name");
+            if (StringUtils.hasText(tableName)) {
+                return tableName;
+            }
+        }
+        if (annotations.isPresent(SPRING_DATA_TABLE)) {
+            String tableName = annotations.get(SPRING_DATA_TABLE).getString("name");
+            if (StringUtils.hasText(tableName)) {
+                return tableName;
+            }
+        }
+        return wrap(SqlNameUtils.camelToUnderline(entityClass.getSimpleName()));
+    }
+
+    private static boolean isField(Field field) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isTransient(modifiers) || field.isAnnotationPresent(Transient.class)) {
+            return false;
+        }
+        MergedAnnotations annotations = MergedAnnotations.from(field);
+        return !annotations.isPresent(TRANSIENT_ANNOTATION);
+    }
+
+    /**
+     * 解析字段注解或直接取用下划线逻辑
+     *
+     * @return 解析结果
+     */
+    private static String resolveFinalName(Field field) {
+        Column column = field.getAnnotation(Column.class);
+        if (null != column && StringUtils.hasText(column.name())) {
+            return column.name();
+        }
+        return SqlNameUtils.camelToUnderline(field.getName());
+    }
+}
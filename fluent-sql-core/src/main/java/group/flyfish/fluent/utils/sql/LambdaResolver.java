@@ -0,0 +1,119 @@
+package group.flyfish.fluent.utils.sql;
+
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.function.BiFunction;
+
+/**
+ * 方法引用解析器
+ * 通过缓存的 MethodHandle 直接调用lambda合成类的 writeReplace 获得 {@link java.lang.invoke.SerializedLambda}，
+ * 解析结果以lambda类为键存放于 {@link ClassValue}，与类的生命周期一致，不会因GC而重新解析
+ *
+ * @author wangyu
+ */
+final class LambdaResolver {
+
+    // 以lambda类为键的解析结果
+    private static final ClassValue<ResolvedLambda> RESOLVED = new ClassValue<>() {
+        @Override
+        protected ResolvedLambda computeValue(Class<?> type) {
+            return new ResolvedLambda(findWriteReplace(type));
+        }
+    };
+
+    private LambdaResolver() {
+    }
+
+    /**
+     * 解析方法引用为列引用
+     *
+     * @param func    方法引用
+     * @param columns 根据实体类和属性名解析列名
+     * @return 列引用
+     */
+    static ColumnRef resolve(SFunction<?, ?> func, BiFunction<Class<?>, String, String> columns) {
+        ResolvedLambda resolved = RESOLVED.get(func.getClass());
+        ColumnRef ref = resolved.ref;
+        if (null == ref) {
+            // 并发下可能重复计算，结果一致且不可变，无需加锁
+            ref = resolved.resolve(func, columns);
+            resolved.ref = ref;
+        }
+        return ref;
+    }
+
+    /**
+     * 查找合成类的 writeReplace 方法
+     *
+     * @param type lambda类
+     * @return 方法句柄，无法访问时返回null，由序列化方式兜底
+     */
+    private static MethodHandle findWriteReplace(Class<?> type) {
+        try {
+            Method method = type.getDeclaredMethod("writeReplace");
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 单个lambda类的解析状态
+     */
+    private static final class ResolvedLambda {
+
+        private final MethodHandle writeReplace;
+
+        private volatile ColumnRef ref;
+
+        private ResolvedLambda(MethodHandle writeReplace) {
+            this.writeReplace = writeReplace;
+        }
+
+        private ColumnRef resolve(SFunction<?, ?> func, BiFunction<Class<?>, String, String> columns) {
+            String implMethodName;
+            Class<?> entityClass;
+            java.lang.invoke.SerializedLambda lambda = invokeWriteReplace(func);
+            if (null != lambda) {
+                implMethodName = lambda.getImplMethodName();
+                entityClass = instantiatedType(lambda.getInstantiatedMethodType(), func.getClass().getClassLoader());
+            } else {
+                // 兜底：序列化往返
+                SerializedLambda serialized = SerializedLambda.resolve(func);
+                implMethodName = serialized.getImplMethodName();
+                entityClass = serialized.getInstantiatedType();
+            }
+            String property = SqlNameUtils.methodToProperty(implMethodName);
+            return new ColumnRef(entityClass, property, columns.apply(entityClass, property));
+        }
+
+        private java.lang.invoke.SerializedLambda invokeWriteReplace(SFunction<?, ?> func) {
+            if (null == writeReplace) {
+                return null;
+            }
+            try {
+                Object replaced = writeReplace.invoke(func);
+                return replaced instanceof java.lang.invoke.SerializedLambda ?
+                        (java.lang.invoke.SerializedLambda) replaced : null;
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+
+        /**
+         * 从实例化方法签名中解析实体类，如 (Lcom/example/User;)Ljava/lang/Object;
+         */
+        private Class<?> instantiatedType(String methodType, ClassLoader classLoader) {
+            String name = methodType.substring(2, methodType.indexOf(';')).replace('/', '.');
+            try {
+                return ClassUtils.forName(name, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("无法加载实体类：" + name, e);
+            }
+        }
+    }
+}
@@ -37,13 +37,35 @@ public interface SFunction<T, R> extends Function<T, R>, SQLSegment, Serializabl
         return EntityNameUtils.toSelect(this);
     }
 
+    /**
+     * 解析为列引用，包含实体类、属性和列名
+     *
+     * @return 列引用
+     */
+    default ColumnRef getColumnRef() {
+        return EntityNameUtils.resolveColumn(this);
+    }
+
+    /**
+     * 以解析后的列引用作为结构
+     *
+     * @param shape 结构指纹
+     * @return 是否描述成功
+     */
+    @Override
+    default boolean describe(SQLShape shape) {
+        shape.add(getColumnRef());
+        return true;
+    }
+
     @SuppressWarnings("unchecked")
     default <V, P> SFunction<V, P> cast() {
         return (SFunction<V, P>) this;
     }
 
     /**
-     * 覆盖写法
+     * 覆盖写法，不经过lambda解析，直接持有实体、属性和列名
+     * 元模型生成的字段常量即为该类型
      *
      * @param <T> 泛型
      * @param <R> 泛型
@@ -59,12 +81,19 @@ public interface SFunction<T, R> extends Function<T, R>, SQLSegment, Serializabl
 
         @Override
         public String getName() {
-            return handle(() -> wrap(name));
+            return handle(() -> wrap(column));
         }
 
         @Override
         public String get() {
-            return handle(() -> String.join(" ", wrap(column), "as", wrap(name)));
+            AliasComposite.AliasCache cache = AliasComposite.sharedCache();
+            String finalName = cache.has(this) ? cache.get(this) : name;
+            return handle(() -> String.join(" ", wrap(column), "as", wrap(finalName)));
+        }
+
+        @Override
+        public ColumnRef getColumnRef() {
+            return new ColumnRef(type, name, column);
         }
 
         private String handle(Supplier<String> handler) {
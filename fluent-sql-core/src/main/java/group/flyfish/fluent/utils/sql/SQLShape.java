@@ -0,0 +1,189 @@
+package group.flyfish.fluent.utils.sql;
+
+import group.flyfish.fluent.chain.SQLSegment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * sql结构指纹
+ * 记录实体类、别名、列引用、条件候选和占位符数量等决定sql文本的信息，不包含参数值
+ * 结构相同的查询渲染结果一定相同，因此可以作为渲染缓存的键
+ * <p>
+ * 任意一个片段无法描述自身结构时，指纹失效，所在的sql不参与缓存
+ * <p>
+ * 嵌套的查询条件等片段在加入后仍可能被继续修改，通过 {@link #defer(SQLSegment)} 记录，
+ * 生成缓存键时才展开，保证指纹与最终渲染的内容一致
+ *
+ * @author wangyu
+ */
+public final class SQLShape {
+
+    private final List<Object> parts = new ArrayList<>();
+
+    private boolean valid = true;
+
+    /**
+     * 追加结构信息
+     *
+     * @param part 结构信息，需正确实现equals和hashCode
+     * @return 链式调用
+     */
+    public SQLShape add(Object part) {
+        if (valid) {
+            parts.add(part);
+        }
+        return this;
+    }
+
+    /**
+     * 追加片段的结构，片段无法描述时指纹失效
+     *
+     * @param segment 片段
+     * @return 指纹是否仍然有效
+     */
+    public boolean describe(SQLSegment segment) {
+        if (valid && !segment.describe(this)) {
+            invalidate();
+        }
+        return valid;
+    }
+
+    /**
+     * 追加片段，结构在生成缓存键时才描述
+     *
+     * @param segment 片段
+     * @return 链式调用
+     */
+    public SQLShape defer(SQLSegment segment) {
+        if (valid) {
+            parts.add(new Deferred(segment));
+        }
+        return this;
+    }
+
+    /**
+     * 追加嵌套的指纹
+     *
+     * @param nested 嵌套指纹
+     * @return 指纹是否仍然有效
+     */
+    public boolean merge(SQLShape nested) {
+        if (!nested.valid) {
+            invalidate();
+        } else if (valid) {
+            parts.add('(');
+            parts.addAll(nested.parts);
+            parts.add(')');
+        }
+        return valid;
+    }
+
+    /**
+     * 标记指纹失效
+     */
+    public void invalidate() {
+        valid = false;
+        parts.clear();
+    }
+
+    /**
+     * @return 指纹是否有效
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * 展开后是否存在满足条件的结构信息，无法描述时视为存在
+     *
+     * @param predicate 条件
+     * @return 是否存在
+     */
+    public boolean anyMatch(Predicate<Object> predicate) {
+        List<Object> flattened = new ArrayList<>(parts.size());
+        if (!flatten(flattened)) {
+            return true;
+        }
+        for (Object part : flattened) {
+            if (predicate.test(part)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 生成不可变的缓存键，展开所有延迟描述的片段
+     *
+     * @param variant 同一结构下的渲染变体，如计数sql
+     * @return 缓存键，无法描述时返回null
+     */
+    public Object key(Object variant) {
+        List<Object> snapshot = new ArrayList<>(parts.size() + 16);
+        if (!flatten(snapshot)) {
+            return null;
+        }
+        snapshot.add(variant);
+        return new Key(snapshot.toArray());
+    }
+
+    /**
+     * 展开到目标集合
+     *
+     * @param out 目标
+     * @return 是否展开成功
+     */
+    private boolean flatten(List<Object> out) {
+        if (!valid) {
+            return false;
+        }
+        for (Object part : parts) {
+            if (part instanceof Deferred) {
+                SQLShape nested = new SQLShape();
+                if (!((Deferred) part).segment.describe(nested) || !nested.flatten(out)) {
+                    return false;
+                }
+            } else {
+                out.add(part);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 延迟描述的片段
+     */
+    private record Deferred(SQLSegment segment) {
+    }
+
+    /**
+     * 缓存键，哈希值只计算一次
+     */
+    private static final class Key {
+
+        private final Object[] parts;
+
+        private final int hash;
+
+        private Key(Object[] parts) {
+            this.parts = parts;
+            this.hash = Arrays.hashCode(parts);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            return o instanceof Key && hash == ((Key) o).hash && Arrays.equals(parts, ((Key) o).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -46,6 +46,7 @@ class SerializedLambda implements Serializable {
 
     /**
      * 通过反序列化转换 lambda 表达式，该方法只能序列化 lambda 表达式，不能序列化接口实现或者正常非 lambda 写法的对象
+     * 仅在 {@link LambdaResolver} 无法访问 writeReplace 时作为兜底使用
      *
      * @param lambda lambda对象
      * @return 返回解析后的 SerializedLambda
@@ -4,18 +4,22 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * 模板编译器
  * 基于匹配模式，将字符串替换为表达式，通过sb返回结果
+ * 编译时将变量名解析为整数槽位，得到由静态文本和槽位组成的扁平计划
  */
 public class TemplateCompiler {
 
     // 暂存静态文本
     private final StringBuilder sb = new StringBuilder();
-    // 负责存储结果
-    private final List<Object> parts = new ArrayList<>();
+    // 静态文本，与槽位一一对应，变量位置为null
+    private final List<String> literals = new ArrayList<>();
+    // 槽位下标，静态文本位置为-1
+    private final List<Integer> slots = new ArrayList<>();
+    // 变量名称，下标即槽位
+    private final List<String> variables = new ArrayList<>();
     // 栈。负责存储标记
     private int start = -1;
 
@@ -29,7 +33,7 @@ public class TemplateCompiler {
      * @param template 模板
      * @return 编译结果
      */
-    public static DynamicValue compile(String template) {
+    public static CompiledTemplate compile(String template) {
         return new TemplateCompiler(template).getCompiled();
     }
 
@@ -49,7 +53,7 @@ public class TemplateCompiler {
             // 在栈作用中
             if (start != -1) {
                 if (c == '}') {
-                    parts.add(resolveExpression(code.substring(start, i)));
+                    addVariable(code.substring(start, i));
                     start = -1;
                 }
             } else {
@@ -57,42 +61,154 @@ public class TemplateCompiler {
                 if (c == '{') {
                     start = i + 1;
                     // 文本缓存非空，拼接之前的文本
-                    if (sb.length() != 0) {
-                        parts.add(sb.toString());
-                        sb.delete(0, sb.length());
-                    }
+                    flushLiteral();
                 } else {
                     sb.append(c);
                 }
             }
         }
         // 拼接完成，释放sb资源。
+        flushLiteral();
+    }
+
+    /**
+     * 添加静态文本
+     */
+    private void flushLiteral() {
         if (sb.length() != 0) {
-            parts.add(sb.toString());
+            literals.add(sb.toString());
+            slots.add(-1);
             sb.delete(0, sb.length());
         }
     }
 
     /**
-     * 获取编译后的内容
+     * 添加变量，同名变量共享槽位
      *
-     * @return 结果
+     * @param key 变量名
      */
-    public DynamicValue getCompiled() {
-        return context -> parts.stream().map(obj -> {
-            if (obj instanceof DynamicValue) {
-                return ((DynamicValue) obj).apply(context);
-            }
-            return String.valueOf(obj);
-        }).collect(Collectors.joining());
+    private void addVariable(String key) {
+        int slot = variables.indexOf(key);
+        if (slot == -1) {
+            slot = variables.size();
+            variables.add(key);
+        }
+        literals.add(null);
+        slots.add(slot);
     }
 
-    private DynamicValue resolveExpression(String key) {
-        return context -> String.valueOf(context.get(key));
+    /**
+     * 获取编译后的内容
+     *
+     * @return 结果
+     */
+    public CompiledTemplate getCompiled() {
+        int[] plan = new int[slots.size()];
+        for (int i = 0; i < plan.length; i++) {
+            plan[i] = slots.get(i);
+        }
+        return new CompiledTemplate(literals.toArray(new String[0]), plan, variables.toArray(new String[0]));
     }
 
     @FunctionalInterface
     public interface DynamicValue extends Function<Map<String, Object>, String> {
 
     }
+
+    /**
+     * 编译后的模板计划，不可变，可在多个线程间共享
+     */
+    public static final class CompiledTemplate implements DynamicValue {
+
+        // 静态文本
+        private final String[] literals;
+
+        // 槽位计划，-1代表静态文本
+        private final int[] plan;
+
+        // 变量名称，下标即槽位
+        private final String[] variables;
+
+        // 静态文本总长度，用于预估缓冲区
+        private final int literalLength;
+
+        private CompiledTemplate(String[] literals, int[] plan, String[] variables) {
+            this.literals = literals;
+            this.plan = plan;
+            this.variables = variables;
+            int length = 0;
+            for (String literal : literals) {
+                if (null != literal) {
+                    length += literal.length();
+                }
+            }
+            this.literalLength = length;
+        }
+
+        /**
+         * 获取变量对应的槽位
+         *
+         * @param name 变量名
+         * @return 槽位，不存在时返回-1
+         */
+        public int slotOf(String name) {
+            for (int i = 0; i < variables.length; i++) {
+                if (variables[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return 槽位数量
+         */
+        public int getSlotCount() {
+            return variables.length;
+        }
+
+        /**
+         * 快速路径，按槽位取值直接写入缓冲区，无哈希查找
+         *
+         * @param slots 槽位值，下标与 {@link #slotOf(String)} 一致
+         * @param out   缓冲区
+         */
+        public void apply(Object[] slots, StringBuilder out) {
+            for (int i = 0; i < plan.length; i++) {
+                int slot = plan[i];
+                if (slot == -1) {
+                    out.append(literals[i]);
+                } else {
+                    out.append(slots[slot]);
+                }
+            }
+        }
+
+        /**
+         * 快速路径，按槽位取值得到结果
+         *
+         * @param slots 槽位值
+         * @return 结果
+         */
+        public String apply(Object... slots) {
+            StringBuilder out = new StringBuilder(literalLength + (plan.length << 3));
+            apply(slots, out);
+            return out.toString();
+        }
+
+        /**
+         * 基于map的兼容接口，按变量名取值
+         *
+         * @param context 变量上下文
+         * @return 结果
+         */
+        @Override
+        public String apply(Map<String, Object> context) {
+            Object[] slots = new Object[variables.length];
+            for (int i = 0; i < variables.length; i++) {
+                slots[i] = context.get(variables[i]);
+            }
+            return apply(slots);
+        }
+    }
 }
@@ -0,0 +1,226 @@
+package group.flyfish.fluent.insert;
+
+import group.flyfish.fluent.entity.BoundSQLEntity;
+import group.flyfish.fluent.entity.ExecutionHints;
+import group.flyfish.fluent.operations.FluentSQLOperations;
+import org.junit.Test;
+
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * 多行插入测试，通过记录执行的语句校验拆分、列选择、执行提示和主键的收集
+ *
+ * @author wangyu
+ */
+public class InsertImplTest {
+
+    @Test
+    public void splitsByChunk() {
+        RecordingOperations operations = new RecordingOperations();
+        int total = new InsertImpl<>(Member.class, () -> operations)
+                .values(members(25))
+                .chunk(10)
+                .execute();
+        assertEquals(25, total);
+        assertEquals(List.of(10, 10, 5), operations.rows());
+        BoundSQLEntity<?> first = operations.statements.get(0);
+        assertEquals("INSERT INTO `member` (`name`, `age`) VALUES " + String.join(", ", Collections.nCopies(10, "(?, ?)")),
+                first.getSql());
+        assertArrayEquals(new Object[]{"m0", 0, "m1", 1}, Arrays.copyOf(first.getParameters(), 4));
+        BoundSQLEntity<?> last = operations.statements.get(2);
+        assertEquals(10, last.getParameters().length);
+        assertEquals("m24", last.getParameters()[8]);
+    }
+
+    @Test
+    public void splitsByParameterLimit() {
+        RecordingOperations operations = new RecordingOperations();
+        new InsertImpl<>(Member.class, () -> operations)
+                .values(members(10))
+                .maxParameters(7)
+                .execute();
+        // 每行两个参数，7个参数最多容纳3行
+        assertEquals(List.of(3, 3, 3, 1), operations.rows());
+        for (BoundSQLEntity<?> statement : operations.statements) {
+            assertTrue(statement.getParameters().length <= 7);
+        }
+    }
+
+    @Test
+    public void defaultsToPostgresParameterLimit() {
+        RecordingOperations operations = new RecordingOperations();
+        new InsertImpl<>(Member.class, () -> operations)
+                .values(members(20000))
+                .chunk(20000)
+                .execute();
+        // 默认上限为32767，每行两个参数，最多容纳16383行
+        assertEquals(List.of(16383, 3617), operations.rows());
+    }
+
+    @Test
+    public void rejectsRowWiderThanParameterLimit() {
+        InsertImpl<Member> insert = new InsertImpl<>(Member.class, RecordingOperations::new);
+        insert.values(members(1)).maxParameters(1);
+        assertThrows(IllegalArgumentException.class, insert::execute);
+    }
+
+    @Test
+    public void skipsNullIdentifiers() {
+        RecordingOperations operations = new RecordingOperations();
+        new InsertImpl<>(Account.class, () -> operations)
+                .values(List.of(new Account(null, "a"), new Account(null, "b")))
+                .execute();
+        assertEquals("INSERT INTO `account` (`name`) VALUES (?), (?)", operations.statements.get(0).getSql());
+
+        operations.statements.clear();
+        new InsertImpl<>(Account.class, () -> operations)
+                .values(List.of(new Account("1", "a"), new Account(null, "b")))
+                .execute();
+        assertEquals("INSERT INTO `account` (`id`, `name`) VALUES (?, ?), (?, ?)", operations.statements.get(0).getSql());
+    }
+
+    @Test
+    public void keepsExplicitColumns() {
+        RecordingOperations operations = new RecordingOperations();
+        new InsertImpl<>(Member.class, () -> operations)
+                .columns("id", "name")
+                .row(7L, "seven")
+                .execute();
+        assertEquals("INSERT INTO `member` (`id`, `name`) VALUES (?, ?)", operations.statements.get(0).getSql());
+    }
+
+    @Test
+    public void collectsKeysAcrossChunks() {
+        RecordingOperations operations = new RecordingOperations();
+        List<Map<String, Object>> keys = new InsertImpl<>(Member.class, () -> operations)
+                .values(members(7))
+                .chunk(3)
+                .executeReturningKeys("id");
+        assertEquals(List.of(3, 3, 1), operations.rows());
+        assertEquals(7, keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals((long) i + 1, keys.get(i).get("id"));
+        }
+    }
+
+    @Test
+    public void appliesHintsToEveryStatement() {
+        RecordingOperations operations = new RecordingOperations();
+        new InsertImpl<>(Member.class, () -> operations)
+                .values(members(5))
+                .chunk(2)
+                .hints(ExecutionHints.timeout(Duration.ofSeconds(3)))
+                .execute();
+        assertEquals(3, operations.statements.size());
+        for (BoundSQLEntity<?> statement : operations.statements) {
+            assertEquals(Duration.ofSeconds(3), statement.getHints().getTimeout());
+        }
+    }
+
+    private static List<Member> members(int count) {
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(new Member("m" + i, i));
+        }
+        return members;
+    }
+
+    /**
+     * 自增主键的实体
+     */
+    static class Member {
+
+        @Id
+        @GeneratedValue
+        private Long id;
+
+        private String name;
+
+        private Integer age;
+
+        Member(String name, Integer age) {
+            this.name = name;
+            this.age = age;
+        }
+    }
+
+    /**
+     * 主键由应用指定的实体
+     */
+    static class Account {
+
+        @Id
+        private String id;
+
+        private String name;
+
+        Account(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /**
+     * 记录执行的语句，每行返回一个自增主键
+     */
+    private static class RecordingOperations implements FluentSQLOperations {
+
+        private final List<BoundSQLEntity<?>> statements = new ArrayList<>();
+
+        private long sequence;
+
+        /**
+         * @return 每条语句的行数
+         */
+        private List<Integer> rows() {
+            List<Integer> rows = new ArrayList<>();
+            for (BoundSQLEntity<?> statement : statements) {
+                String sql = statement.getSql();
+                rows.add(sql.split("\\), \\(", -1).length);
+            }
+            return rows;
+        }
+
+        @Override
+        public <T> int execute(BoundSQLEntity<T> entity) {
+            statements.add(entity);
+            return rows().get(statements.size() - 1);
+        }
+
+        @Override
+        public <T> List<Map<String, Object>> executeReturningKeys(BoundSQLEntity<T> entity, String... keyColumns) {
+            int rows = execute(entity);
+            List<Map<String, Object>> keys = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                keys.add(Map.of(keyColumns[0], ++sequence));
+            }
+            return keys;
+        }
+
+        @Override
+        public <T> T selectOne(BoundSQLEntity<T> entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> List<T> select(BoundSQLEntity<T> entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> Stream<T> stream(BoundSQLEntity<T> entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> int[] executeBatch(BoundSQLEntity<T> entity, List<Object[]> parameters, int batchSize) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package group.flyfish.fluent.utils.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 并发有界缓存测试
+ *
+ * @author wangyu
+ */
+public class ConcurrentCacheTest {
+
+    private static final int THREADS = 64;
+
+    @Test
+    public void evictsBeyondMaximumSize() {
+        ConcurrentCache<Integer, Integer> cache = ConcurrentCache.of(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(100, cache.weight());
+        assertEquals(900, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void keepsFrequentEntryDuringScan() {
+        ConcurrentCache<String, String> cache = ConcurrentCache.of(100);
+        cache.put("hot", "hot");
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("hot", cache.get("hot"));
+            cache.put("cold-" + i, "cold");
+        }
+        assertEquals("hot", cache.get("hot"));
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    public void boundsTotalWeight() {
+        ConcurrentCache<Integer, String> cache = ConcurrentCache.weighted(100, (key, value) -> value.length());
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, "0123456789");
+        }
+        assertEquals(10, cache.size());
+        assertEquals(100, cache.weight());
+        // 权重超过上限的条目放入后立即被淘汰
+        cache.put(-1, "x".repeat(101));
+        assertNull(cache.get(-1));
+        assertTrue(cache.weight() <= 100);
+        // 替换和移除时按原条目的权重扣减
+        Integer key = firstKey(cache);
+        assertNotNull(key);
+        long before = cache.weight();
+        cache.put(key, "01234");
+        assertEquals(before - 5, cache.weight());
+        cache.remove(key);
+        assertEquals(before - 10, cache.weight());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    public void largeWeightLimitWithFewEntries() {
+        ConcurrentCache<Integer, Integer> cache = ConcurrentCache.weighted(Long.MAX_VALUE, (key, value) -> Integer.MAX_VALUE);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(100L * Integer.MAX_VALUE, cache.weight());
+    }
+
+    @Test
+    public void computesOncePerKeyUnderContention() throws Exception {
+        ConcurrentCache<Integer, Integer> cache = ConcurrentCache.of(10_000);
+        int keys = 1000;
+        AtomicInteger[] computations = new AtomicInteger[keys];
+        for (int i = 0; i < keys; i++) {
+            computations[i] = new AtomicInteger();
+        }
+        runConcurrently(thread -> {
+            for (int i = 0; i < keys; i++) {
+                int key = (i + thread * 17) % keys;
+                Integer value = cache.computeIfAbsent(key, k -> {
+                    computations[k].incrementAndGet();
+                    return k * 2;
+                });
+                assertEquals(Integer.valueOf(key * 2), value);
+            }
+        });
+        for (int i = 0; i < keys; i++) {
+            assertEquals("键" + i + "被重复计算", 1, computations[i].get());
+        }
+        assertEquals(keys, cache.size());
+        assertEquals(keys, cache.weight());
+        assertEquals((long) THREADS * keys, cache.stats().hitCount() + cache.stats().missCount());
+    }
+
+    @Test
+    public void staysBoundedUnderContention() throws Exception {
+        ConcurrentCache<Integer, Integer> cache = ConcurrentCache.of(100);
+        runConcurrently(thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 5000; i++) {
+                int key = random.nextInt(1000);
+                assertEquals(Integer.valueOf(key), cache.computeIfAbsent(key, k -> k));
+                if (i % 10 == 0) {
+                    cache.remove(random.nextInt(1000));
+                }
+            }
+        });
+        assertTrue(cache.size() <= 100);
+        assertEquals(cache.size(), cache.weight());
+    }
+
+    private static Integer firstKey(ConcurrentCache<Integer, String> cache) {
+        for (int i = 0; i < 50; i++) {
+            if (null != cache.get(i)) {
+                return i;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 所有线程同时开始执行，任一线程失败时抛出其异常
+     *
+     * @param task 任务，参数为线程序号
+     */
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(1, TimeUnit.MINUTES);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error error) {
+                        throw error;
+                    }
+                    throw e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+
+        void run(int thread);
+    }
+}
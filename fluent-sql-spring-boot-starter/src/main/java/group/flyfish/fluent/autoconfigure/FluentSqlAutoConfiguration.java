@@ -59,7 +59,8 @@ public class FluentSqlAutoConfiguration {
         @ConditionalOnBean(DataSource.class)
         @ConditionalOnMissingBean(FluentSQLOperations.class)
         public FluentSQLOperations fluentSQLOperations(DataSource dataSource) {
-            return new JdbcTemplateFluentSQLOperations(new JdbcTemplate(dataSource));
+            // 单一数据源，异步模式的并发上限与其连接池保持一致
+            return new JdbcTemplateFluentSQLOperations(new JdbcTemplate(dataSource)).alignAsyncConcurrency();
         }
     }
 }
@@ -0,0 +1,129 @@
+package group.flyfish.fluent.mapping;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 编译bean的构造器和setter，每个类只生成一次，之后每行直接调用
+ * 优先通过 {@link LambdaMetafactory} 生成函数接口的实现，JIT可以完全内联；
+ * 当查找上下文没有足够的访问权限（例如实体位于其他类加载器）时，退化为 {@link MethodHandle} 调用
+ *
+ * @author wangyu
+ */
+final class BeanAccessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private BeanAccessors() {
+    }
+
+    /**
+     * 编译无参构造器
+     *
+     * @param type 类型
+     * @param <T>  泛型
+     * @return 实例提供者，没有无参构造器时在调用时抛出异常
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Supplier<T> constructor(Class<T> type) {
+        MethodHandles.Lookup lookup;
+        MethodHandle handle;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, LOOKUP);
+            handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+        } catch (ReflectiveOperationException | IllegalArgumentException | SecurityException e) {
+            return () -> BeanUtils.instantiateClass(type);
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), handle, MethodType.methodType(type));
+            return (Supplier<T>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return (T) generic.invokeExact();
+                } catch (Throwable ex) {
+                    ReflectionUtils.rethrowRuntimeException(ex);
+                    return null;
+                }
+            };
+        }
+    }
+
+    /**
+     * 编译带参数的构造器，参数以数组传入，调用时展开
+     *
+     * @param constructor 构造器
+     * @param <T>         泛型
+     * @return 实例创建函数
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Function<Object[], T> constructor(Constructor<T> constructor) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.privateLookupIn(constructor.getDeclaringClass(), LOOKUP).unreflectConstructor(constructor);
+        } catch (ReflectiveOperationException | IllegalArgumentException | SecurityException e) {
+            ReflectionUtils.makeAccessible(constructor);
+            return arguments -> BeanUtils.instantiateClass(constructor, arguments);
+        }
+        MethodHandle spread = handle.asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        return arguments -> {
+            try {
+                return (T) spread.invokeExact(arguments);
+            } catch (Throwable ex) {
+                ReflectionUtils.rethrowRuntimeException(ex);
+                return null;
+            }
+        };
+    }
+
+    /**
+     * 编译setter，基本类型的参数自动拆箱，返回值（链式setter）被忽略
+     *
+     * @param type   实体类型
+     * @param setter setter方法
+     * @return 写入器，参数为实例和值
+     */
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> writer(Class<?> type, Method setter) {
+        MethodHandles.Lookup lookup;
+        MethodHandle handle;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, LOOKUP);
+            handle = lookup.unreflect(setter);
+        } catch (ReflectiveOperationException | IllegalArgumentException | SecurityException e) {
+            ReflectionUtils.makeAccessible(setter);
+            return (instance, value) -> ReflectionUtils.invokeMethod(setter, instance, value);
+        }
+        Class<?> parameter = ClassUtils.resolvePrimitiveIfNecessary(setter.getParameterTypes()[0]);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), handle,
+                    MethodType.methodType(void.class, type, parameter));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (instance, value) -> {
+                try {
+                    generic.invokeExact(instance, value);
+                } catch (Throwable ex) {
+                    ReflectionUtils.rethrowRuntimeException(ex);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package group.flyfish.fluent.mapping;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 结果集的列绑定计划
+ * 按结果集的列名组合解析一次，记录每个映射列的下标、目标属性和读取方式，
+ * 之后每行按下标顺序读取写入，不再查询元数据、转换列名或查找属性
+ *
+ * @author wangyu
+ */
+@Slf4j
+final class ColumnPlan {
+
+    // 常见类型直接使用对应的getter
+    private static final Map<Class<?>, ColumnReader> READERS = Map.ofEntries(
+            Map.entry(String.class, ResultSet::getString),
+            Map.entry(Long.class, (rs, index) -> {
+                long value = rs.getLong(index);
+                return value == 0 && rs.wasNull() ? null : value;
+            }),
+            Map.entry(Integer.class, (rs, index) -> {
+                int value = rs.getInt(index);
+                return value == 0 && rs.wasNull() ? null : value;
+            }),
+            Map.entry(Double.class, (rs, index) -> {
+                double value = rs.getDouble(index);
+                return value == 0 && rs.wasNull() ? null : value;
+            }),
+            Map.entry(Boolean.class, (rs, index) -> {
+                boolean value = rs.getBoolean(index);
+                return !value && rs.wasNull() ? null : value;
+            }),
+            Map.entry(BigDecimal.class, ResultSet::getBigDecimal),
+            Map.entry(Timestamp.class, ResultSet::getTimestamp),
+            Map.entry(java.util.Date.class, ResultSet::getTimestamp),
+            Map.entry(byte[].class, ResultSet::getBytes)
+    );
+
+    // 映射列的下标，从1开始
+    final int[] indexes;
+
+    // 下标对应的列名
+    final String[] columns;
+
+    // 下标对应的属性
+    final MappedProperty[] properties;
+
+    // 下标对应的读取方式，为空时使用行映射器的通用读取
+    final ColumnReader[] readers;
+
+    private ColumnPlan(int[] indexes, String[] columns, MappedProperty[] properties, ColumnReader[] readers) {
+        this.indexes = indexes;
+        this.columns = columns;
+        this.properties = properties;
+        this.readers = readers;
+    }
+
+    /**
+     * 根据列名解析绑定计划，未映射的列直接跳过
+     *
+     * @param descriptor 映射描述器
+     * @param columns    结果集的列名，按下标顺序
+     * @param types      列的jdbc类型，按下标顺序
+     * @return 计划
+     */
+    static ColumnPlan resolve(MappingDescriptor<?> descriptor, List<String> columns, int[] types) {
+        List<Integer> indexes = new ArrayList<>(columns.size());
+        List<MappedProperty> properties = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i);
+            MappedProperty property = descriptor.getMappedFields().get(descriptor.lowerCaseName(column));
+            if (null == property) {
+                continue;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Mapping column '{}' to property '{}' of type '{}'", column, property.getName(),
+                        ClassUtils.getQualifiedName(property.getType()));
+            }
+            indexes.add(i + 1);
+            properties.add(property);
+        }
+        int size = indexes.size();
+        int[] indexArray = new int[size];
+        String[] names = new String[size];
+        ColumnReader[] readers = new ColumnReader[size];
+        for (int i = 0; i < size; i++) {
+            indexArray[i] = indexes.get(i);
+            names[i] = columns.get(indexArray[i] - 1);
+            MappedProperty property = properties.get(i);
+            readers[i] = property.isJson() ? jsonReader(property, types[indexArray[i] - 1]) : READERS.get(property.getBoxedType());
+        }
+        return new ColumnPlan(indexArray, names, properties.toArray(new MappedProperty[0]), readers);
+    }
+
+    /**
+     * json字段直接从驱动的流中解码，不生成中间的字符串
+     * 二进制列读取字节流，其余读取字符流
+     *
+     * @param property 属性
+     * @param type     列的jdbc类型
+     * @return 读取方式
+     */
+    private static ColumnReader jsonReader(MappedProperty property, int type) {
+        return switch (type) {
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB ->
+                    (rs, index) -> property.readJson(rs.getBinaryStream(index));
+            default -> (rs, index) -> property.readJson(rs.getCharacterStream(index));
+        };
+    }
+
+    /**
+     * 列读取方式
+     */
+    @FunctionalInterface
+    interface ColumnReader {
+
+        /**
+         * 读取当前行指定下标的值
+         *
+         * @param rs    结果集
+         * @param index 下标，从1开始
+         * @return 值
+         * @throws SQLException 读取失败
+         */
+        Object read(ResultSet rs, int index) throws SQLException;
+    }
+}
@@ -0,0 +1,195 @@
+package group.flyfish.fluent.mapping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import group.flyfish.fluent.utils.data.ObjectMappers;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.function.BiConsumer;
+
+/**
+ * 映射的属性，写入器与类型信息在描述器创建时确定
+ * 属性通过setter写入，或作为构造器参数传入
+ *
+ * @author wangyu
+ */
+@Getter
+@Slf4j
+final class MappedProperty {
+
+    private final String name;
+
+    private final Class<?> type;
+
+    // 是否需要json转换
+    private final boolean json;
+
+    // 装箱后的类型，用于判断是否需要转换
+    private final Class<?> boxedType;
+
+    private final TypeDescriptor typeDescriptor;
+
+    // setter写入器，构造器参数为空
+    private final BiConsumer<Object, Object> writer;
+
+    // 构造器参数的下标，setter属性为-1
+    private final int index;
+
+    // 空值时使用的默认值，基本类型为其零值
+    private final Object defaultValue;
+
+    // json字段的读取器，非json字段为空
+    private final ObjectReader jsonReader;
+
+    MappedProperty(Class<?> mappedClass, PropertyDescriptor pd, boolean json) {
+        this(mappedClass, pd.getName(), new MethodParameter(pd.getWriteMethod(), 0), json,
+                BeanAccessors.writer(mappedClass, pd.getWriteMethod()), -1);
+    }
+
+    MappedProperty(String name, MethodParameter parameter, boolean json) {
+        this(parameter.getDeclaringClass(), name, parameter, json, null, parameter.getParameterIndex());
+    }
+
+    private MappedProperty(Class<?> mappedClass, String name, MethodParameter parameter, boolean json,
+                           BiConsumer<Object, Object> writer, int index) {
+        this.name = name;
+        this.type = parameter.getParameterType();
+        this.json = json;
+        this.boxedType = ClassUtils.resolvePrimitiveIfNecessary(type);
+        this.typeDescriptor = new TypeDescriptor(parameter);
+        this.writer = writer;
+        this.index = index;
+        this.defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+        this.jsonReader = json ? jsonReader(GenericTypeResolver.resolveType(parameter.getGenericParameterType(), mappedClass)) : null;
+    }
+
+    /**
+     * 创建json读取器，保留完整的泛型信息，如 {@code List<QuotaItem>}
+     *
+     * @param type 属性的泛型类型，已按映射的类型解析类型变量
+     * @return 读取器
+     */
+    private static ObjectReader jsonReader(Type type) {
+        ObjectMapper mapper = ObjectMappers.shared();
+        return mapper.readerFor(mapper.getTypeFactory().constructType(type));
+    }
+
+    /**
+     * 解码json，支持驱动返回的文本、字节数组和 {@link ByteBuffer}，其他类型原样返回
+     *
+     * @param value 原始值
+     * @return 结果，解码失败时为空
+     */
+    Object readJson(Object value) {
+        try {
+            if (value instanceof String text) {
+                return jsonReader.readValue(text);
+            }
+            if (value instanceof byte[] bytes) {
+                return jsonReader.readValue(bytes);
+            }
+            if (value instanceof ByteBuffer buffer) {
+                if (buffer.hasArray()) {
+                    return jsonReader.readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                }
+                return jsonReader.readValue(new ByteBufferBackedInputStream(buffer));
+            }
+        } catch (IOException e) {
+            log.error("转换json为对象时出错！{}", e.getMessage());
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * 从字符流解码json
+     *
+     * @param reader 字符流，列为空时为null
+     * @return 结果，解码失败时为空
+     */
+    Object readJson(Reader reader) {
+        if (null == reader) {
+            return null;
+        }
+        try (reader) {
+            return jsonReader.readValue(reader);
+        } catch (IOException e) {
+            log.error("转换json为对象时出错！{}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 从字节流解码json，编码由解析器自动识别
+     *
+     * @param stream 字节流，列为空时为null
+     * @return 结果，解码失败时为空
+     */
+    Object readJson(InputStream stream) {
+        if (null == stream) {
+            return null;
+        }
+        try (stream) {
+            return jsonReader.readValue(stream);
+        } catch (IOException e) {
+            log.error("转换json为对象时出错！{}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写入值，类型一致时直接调用setter，否则先经过转换服务
+     * 空值不写入基本类型的属性，保留其默认值
+     *
+     * @param instance          实例
+     * @param value             值
+     * @param conversionService 转换服务
+     */
+    void write(Object instance, Object value, ConversionService conversionService) {
+        if (null == value && type.isPrimitive()) {
+            return;
+        }
+        writer.accept(instance, convert(value, conversionService));
+    }
+
+    /**
+     * 写入构造器参数，空值保留参数数组中的默认值
+     *
+     * @param arguments         参数数组
+     * @param value             值
+     * @param conversionService 转换服务
+     */
+    void bind(Object[] arguments, Object value, ConversionService conversionService) {
+        if (null != value) {
+            arguments[index] = convert(value, conversionService);
+        }
+    }
+
+    /**
+     * 类型不一致时转换为属性的类型
+     *
+     * @param value             值
+     * @param conversionService 转换服务
+     * @return 结果
+     */
+    private Object convert(Object value, ConversionService conversionService) {
+        if (null == value || boxedType.isInstance(value)) {
+            return value;
+        }
+        return conversionService.convert(value, TypeDescriptor.forObject(value), typeDescriptor);
+    }
+}
@@ -1,68 +1,42 @@
 package group.flyfish.fluent.mapping;
 
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
-import org.springframework.core.convert.ConversionService;
-import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
-import java.beans.PropertyDescriptor;
-import java.util.function.BiFunction;
-import java.util.function.Supplier;
-import java.util.function.UnaryOperator;
-
 /**
  * 映射中的bean
+ * 实例通过编译后的构造器创建，属性通过编译后的setter直接写入；
+ * 不可变类型的值先写入当前线程的参数数组，取值时一次构造
  */
-@Setter
 @Slf4j
 class MappingBean<T> {
 
     private final T instance;
 
-    private final MappingDescriptor<T> descriptor;
+    // 构造器参数，按setter映射时为空
+    private final Object[] arguments;
 
-    private final BeanWrapper bw;
+    private final MappingDescriptor<T> descriptor;
 
     private boolean logged;
 
-    private Supplier<ConversionService> conversionService = DefaultConversionService::getSharedInstance;
-
-    private UnaryOperator<String> propertyTransformer = UnaryOperator.identity();
-
-    private BiFunction<String, Object, Object> transformer = (column, value) -> value;
-
     /**
      * 创建实例
      *
      * @return 结果
      */
     static <T> MappingBean<T> create(MappingDescriptor<T> descriptor) {
-        T instance = BeanUtils.instantiateClass(descriptor.getMappedClass());
-        return new MappingBean<>(instance, descriptor);
+        if (descriptor.isConstructed()) {
+            return new MappingBean<>(null, descriptor.arguments(), descriptor);
+        }
+        return new MappingBean<>(descriptor.instantiate(), null, descriptor);
     }
 
-    private MappingBean(T instance, MappingDescriptor<T> descriptor) {
+    private MappingBean(T instance, Object[] arguments, MappingDescriptor<T> descriptor) {
         this.instance = instance;
+        this.arguments = arguments;
         this.descriptor = descriptor;
-        this.bw = new BeanWrapperImpl(instance);
-        initBeanWrapper(bw);
-    }
-
-    /**
-     * 初始化bean wrapper
-     *
-     * @param bw bean包装器
-     */
-    protected void initBeanWrapper(BeanWrapper bw) {
-        ConversionService cs = conversionService.get();
-        if (cs != null) {
-            bw.setConversionService(cs);
-        }
     }
 
     /**
@@ -74,20 +48,25 @@ class MappingBean<T> {
     void setValue(String column, ValueProvider value) throws Exception {
         String findName = getProperty(column);
         if (StringUtils.hasText(findName)) {
-            PropertyDescriptor pd = descriptor.getMappedFields().get(findName);
-            if (null == pd) return;
-            String name = pd.getName();
+            MappedProperty property = descriptor.getMappedFields().get(findName);
+            if (null == property) return;
             if (!logged) {
                 logged = true;
                 if (log.isDebugEnabled()) {
-                    log.debug("Mapping column '{}' to property '{}' of type '{}'", column, name,
-                            ClassUtils.getQualifiedName(pd.getPropertyType()));
+                    log.debug("Mapping column '{}' to property '{}' of type '{}'", column, property.getName(),
+                            ClassUtils.getQualifiedName(property.getType()));
                 }
             }
             // 尝试获取值
-            Object mappedValue = transformer.apply(name, value.get(pd.getPropertyType()));
+            // json字段取驱动的原始值（文本或字节），直接解码为目标类型
+            Object raw = value.get(property.isJson() ? Object.class : property.getType());
+            Object mappedValue = descriptor.convertPropertyIfNeed(property, raw);
             // 尝试设置
-            bw.setPropertyValue(name, mappedValue);
+            if (null == arguments) {
+                property.write(instance, mappedValue, descriptor.getConversionService());
+            } else {
+                property.bind(arguments, mappedValue, descriptor.getConversionService());
+            }
         }
     }
 
@@ -98,15 +77,15 @@ class MappingBean<T> {
      * @return 结果
      */
     String getProperty(String column) {
-        return propertyTransformer.apply(column);
+        return descriptor.lowerCaseName(column);
     }
 
     /**
-     * 获取设置后的实体
+     * 获取设置后的实体，不可变类型在此时构造
      *
      * @return 结果
      */
     T get() {
-        return instance;
+        return null == arguments ? instance : descriptor.construct(arguments);
     }
 }
@@ -1,27 +1,38 @@
 package group.flyfish.fluent.mapping;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import group.flyfish.fluent.binding.Alias;
 import group.flyfish.fluent.binding.JSONInject;
-import group.flyfish.fluent.utils.data.ObjectMappers;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.MergedAnnotations;
-import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.beans.ConstructorProperties;
 import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static group.flyfish.fluent.utils.sql.SqlNameUtils.cast;
 
 /**
  * 特定类型的映射解释器
+ * 存在无参构造器时按setter写入；记录类和只有带参构造器的不可变类型，列值作为构造器参数一次传入
  *
  * @param <T> 泛型
  */
@@ -29,31 +40,68 @@ import java.util.Map;
 @Slf4j
 class MappingDescriptor<T> {
 
-    private final ObjectMapper objectMapper = ObjectMappers.shared();
+    // 描述器注册表，并发访问时每个类只保留一份
+    private static final ClassValue<MappingDescriptor<?>> REGISTRY = new ClassValue<>() {
+        @Override
+        protected MappingDescriptor<?> computeValue(Class<?> type) {
+            return new MappingDescriptor<>(type);
+        }
+    };
 
     /**
      * The class we are mapping to.
      */
-    private Class<T> mappedClass;
+    private final Class<T> mappedClass;
     /**
      * Map of the fields we provide mapping for.
      */
-    private final Map<String, PropertyDescriptor> mappedFields;
+    private final Map<String, MappedProperty> mappedFields;
+
+    /**
+     * 类型不一致时使用的转换服务
+     */
+    private final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+    /**
+     * 编译后的无参构造器
+     */
+    private Supplier<T> instantiator;
+
+    /**
+     * 编译后的带参构造器，按setter映射时为空
+     */
+    private Function<Object[], T> creator;
 
     /**
-     * Map of the fields which need json convert
+     * 构造器参数的默认值
      */
-    private final Map<String, Class<?>> jsonFields;
+    private Object[] defaults;
 
+    /**
+     * 每个线程复用的构造器参数数组
+     */
+    private ThreadLocal<Object[]> arguments;
+
+    /**
+     * 结果集列名和类型组合 -> 列绑定计划
+     */
+    private final Map<PlanKey, ColumnPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * 获取类型的映射描述器，每个类只解析一次
+     *
+     * @param mappedClass 映射的类型
+     * @return 共享的描述器
+     */
     static <T> MappingDescriptor<T> of(Class<T> mappedClass) {
-        return new MappingDescriptor<>(mappedClass);
+        Assert.state(mappedClass != null, "Mapped class was not specified");
+        return cast(REGISTRY.get(mappedClass));
     }
 
     private MappingDescriptor(Class<T> mappedClass) {
         Assert.state(mappedClass != null, "Mapped class was not specified");
         this.mappedClass = mappedClass;
         this.mappedFields = new HashMap<>();
-        this.jsonFields = new HashMap<>();
         initialize();
     }
 
@@ -61,34 +109,162 @@ class MappingDescriptor<T> {
         Map<String, MergedAnnotations> fieldAnnotations = new HashMap<>();
         ReflectionUtils.doWithFields(mappedClass, field -> fieldAnnotations.put(field.getName(), MergedAnnotations.from(field)));
 
+        // 不可变类型，列值作为构造器参数传入
+        Constructor<T> constructor = resolveConstructor(mappedClass);
+        if (null != constructor) {
+            String[] names = resolveParameterNames(constructor);
+            Object[] defaults = new Object[names.length];
+            for (int i = 0; i < names.length; i++) {
+                MergedAnnotations annotations = fieldAnnotations.get(names[i]);
+                MappedProperty property = new MappedProperty(names[i], MethodParameter.forExecutable(constructor, i),
+                        isPresent(annotations, JSONInject.class));
+                defaults[i] = property.getDefaultValue();
+                register(names[i], annotations, property);
+            }
+            this.creator = BeanAccessors.constructor(constructor);
+            this.defaults = defaults;
+            this.arguments = ThreadLocal.withInitial(() -> new Object[defaults.length]);
+            return;
+        }
+
+        this.instantiator = BeanAccessors.constructor(mappedClass);
         for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(mappedClass)) {
             if (pd.getWriteMethod() != null) {
                 MergedAnnotations annotations = fieldAnnotations.get(pd.getName());
-                String lowerCaseName;
-                if (annotations.isPresent(Alias.class)) {
-                    String rawName = annotations.get(Alias.class).synthesize().value();
-                    lowerCaseName = lowerCaseName(rawName.replace("_", ""));
-                } else {
-                    lowerCaseName = lowerCaseName(pd.getName());
-                }
-                this.mappedFields.put(lowerCaseName, pd);
-                String underscoreName = underscoreName(pd.getName());
-                if (!lowerCaseName.equals(underscoreName)) {
-                    this.mappedFields.put(underscoreName, pd);
-                }
-                // 添加json字段
-                if (annotations.isPresent(JSONInject.class)) {
-                    this.jsonFields.put(pd.getName(), pd.getPropertyType());
-                }
+                register(pd.getName(), annotations, new MappedProperty(mappedClass, pd, isPresent(annotations, JSONInject.class)));
+            }
+        }
+    }
+
+    /**
+     * 注册属性，同时以小写名和下划线名匹配列
+     *
+     * @param name        属性名
+     * @param annotations 字段上的注解，可能为空
+     * @param property    属性
+     */
+    private void register(String name, MergedAnnotations annotations, MappedProperty property) {
+        String lowerCaseName;
+        if (isPresent(annotations, Alias.class)) {
+            String rawName = annotations.get(Alias.class).synthesize().value();
+            lowerCaseName = lowerCaseName(rawName.replace("_", ""));
+        } else {
+            lowerCaseName = lowerCaseName(name);
+        }
+        this.mappedFields.put(lowerCaseName, property);
+        String underscoreName = underscoreName(name);
+        if (!lowerCaseName.equals(underscoreName)) {
+            this.mappedFields.put(underscoreName, property);
+        }
+    }
+
+    private static boolean isPresent(MergedAnnotations annotations, Class<? extends Annotation> type) {
+        return null != annotations && annotations.isPresent(type);
+    }
+
+    /**
+     * 解析用于映射的构造器，依次为记录类的规范构造器、标注了 {@link ConstructorProperties} 的构造器、
+     * 唯一的带参构造器；存在无参构造器时返回空，按setter映射，
+     * 因此同时声明了无参构造器和全参构造器的可变bean（如lombok生成的）仍按setter映射
+     *
+     * @param type 映射的类型
+     * @return 构造器，按setter映射时为空
+     */
+    private static <T> Constructor<T> resolveConstructor(Class<T> type) {
+        if (type.isRecord()) {
+            Class<?>[] types = Arrays.stream(type.getRecordComponents()).map(RecordComponent::getType).toArray(Class<?>[]::new);
+            return ClassUtils.getConstructorIfAvailable(type, types);
+        }
+        if (Arrays.stream(type.getDeclaredConstructors()).anyMatch(constructor -> constructor.getParameterCount() == 0)) {
+            return null;
+        }
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(ConstructorProperties.class)) {
+                return cast(constructor);
             }
         }
+        try {
+            Constructor<T> constructor = BeanUtils.getResolvableConstructor(type);
+            return constructor.getParameterCount() > 0 ? constructor : null;
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 解析构造器的参数名，记录类取组件名，其余取 {@link ConstructorProperties} 或编译保留的参数名
+     *
+     * @param constructor 构造器
+     * @return 参数名
+     * @throws IllegalStateException 未标注 {@link ConstructorProperties} 且编译时未保留参数名
+     */
+    private static String[] resolveParameterNames(Constructor<?> constructor) {
+        Class<?> type = constructor.getDeclaringClass();
+        if (type.isRecord()) {
+            return Arrays.stream(type.getRecordComponents()).map(RecordComponent::getName).toArray(String[]::new);
+        }
+        try {
+            return BeanUtils.getParameterNames(constructor);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("无法解析类型" + type.getName() + "的构造器参数名，不能映射！" +
+                    "请使用 -parameters 编译，在构造器上标注 @ConstructorProperties，或提供无参构造器和setter", e);
+        }
     }
 
     MappingBean<T> create() {
-        MappingBean<T> bean = MappingBean.create(this);
-        bean.setTransformer(this::convertPropertyIfNeed);
-        bean.setPropertyTransformer(this::lowerCaseName);
-        return bean;
+        return MappingBean.create(this);
+    }
+
+    /**
+     * @return 是否通过构造器参数映射
+     */
+    boolean isConstructed() {
+        return null != creator;
+    }
+
+    /**
+     * 获取当前线程的构造器参数数组，已重置为默认值
+     * 参数在构造时展开传入，数组可在下一行复用
+     *
+     * @return 参数数组
+     */
+    Object[] arguments() {
+        Object[] arguments = this.arguments.get();
+        System.arraycopy(defaults, 0, arguments, 0, defaults.length);
+        return arguments;
+    }
+
+    /**
+     * 通过编译后的构造器创建实例
+     *
+     * @param arguments 构造器参数
+     * @return 实例
+     */
+    T construct(Object[] arguments) {
+        return creator.apply(arguments);
+    }
+
+    /**
+     * 获取结果集的列绑定计划，相同的列名和类型组合只解析一次
+     * json列的读取方式取决于列的类型，因此类型也是计划的一部分
+     *
+     * @param columns 结果集的列名，按下标顺序
+     * @param types   列的jdbc类型，按下标顺序
+     * @return 计划
+     */
+    ColumnPlan plan(List<String> columns, int[] types) {
+        PlanKey key = new PlanKey(columns, types);
+        ColumnPlan plan = plans.get(key);
+        return null != plan ? plan : plans.computeIfAbsent(key, k -> ColumnPlan.resolve(this, k.columns, k.types));
+    }
+
+    /**
+     * 通过编译后的构造器创建实例
+     *
+     * @return 实例
+     */
+    T instantiate() {
+        return instantiator.get();
     }
 
     boolean isPrimitive() {
@@ -117,7 +293,7 @@ class MappingDescriptor<T> {
      * @return the converted name
      * @since 4.2
      */
-    private String lowerCaseName(String name) {
+    String lowerCaseName(String name) {
         return StringUtils.delete(name, " ").toLowerCase(Locale.US);
     }
 
@@ -149,44 +325,32 @@ class MappingDescriptor<T> {
     }
 
     /**
-     * Set the class that each row should be mapped to.
+     * json字段经由属性缓存的读取器解码，其余原样返回
+     *
+     * @param property 属性
+     * @param value    原始值
+     * @return 结果
      */
-    void setMappedClass(Class<T> mappedClass) {
-        if (this.mappedClass == null) {
-            this.mappedClass = mappedClass;
-            initialize();
-        } else {
-            if (this.mappedClass != mappedClass) {
-                throw new InvalidDataAccessApiUsageException("The mapped class can not be reassigned to map to " +
-                        mappedClass + " since it is already providing mapping for " + this.mappedClass);
-            }
-        }
-    }
-
-    private Object convertPropertyIfNeed(String name, Object value) {
-        if (jsonFields.containsKey(name)) {
-            value = convert(value, jsonFields.get(name));
-        }
-        return value;
+    Object convertPropertyIfNeed(MappedProperty property, Object value) {
+        return property.isJson() ? property.readJson(value) : value;
     }
 
     /**
-     * 转换json对象
+     * 列绑定计划的键
      *
-     * @param type  目标类型
-     * @param value 值
-     * @return 结果
+     * @param columns 列名
+     * @param types   列的jdbc类型
      */
-    private Object convert(Object value, Class<?> type) {
-        if (value instanceof String) {
-            try {
-                return objectMapper.readValue((String) value, type);
-            } catch (JsonProcessingException e) {
-                log.error("转换json为对象时出错！{}", e.getMessage());
-                return null;
-            }
+    private record PlanKey(List<String> columns, int[] types) {
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof PlanKey other && columns.equals(other.columns) && Arrays.equals(types, other.types);
         }
-        return value;
-    }
 
+        @Override
+        public int hashCode() {
+            return 31 * columns.hashCode() + Arrays.hashCode(types);
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package group.flyfish.fluent.mapping;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.util.ClassUtils;
+
+import static group.flyfish.fluent.utils.sql.SqlNameUtils.cast;
+
+/**
+ * 行映射注册表
+ * 映射描述器按类共享，每个类只解析一次，之后的查询直接复用；
+ * jdbc的实体行映射器持有当前查询的列绑定计划，每次获取时创建，创建只是包装共享的描述器
+ * 注册表基于 {@link ClassValue}，并发访问时保证每个类只保留一份结果，且随类卸载而释放
+ *
+ * @author wangyu
+ */
+public final class RowMappers {
+
+    private RowMappers() {
+    }
+
+    /**
+     * 获取jdbc的行映射，每次查询获取一次，不要在并发的查询间共享
+     *
+     * @param type 结果类型
+     * @param <T>  泛型
+     * @return 行映射，基本类型为共享的单列映射
+     */
+    public static <T> RowMapper<T> jdbc(Class<T> type) {
+        RowMapper<?> shared = Jdbc.MAPPERS.get(type);
+        return null != shared ? cast(shared) : SQLMappedRowMapper.newInstance(type);
+    }
+
+    /**
+     * 获取r2dbc的行映射
+     *
+     * @param type 结果类型
+     * @param <T>  泛型
+     * @return 共享的行映射
+     */
+    public static <T> ReactiveSQLMappedRowMapper<T> reactive(Class<T> type) {
+        return cast(Reactive.MAPPERS.get(type));
+    }
+
+    /**
+     * 预热，在启动阶段提前解析实体，避免首次查询时承担反射的开销
+     *
+     * @param types 结果类型
+     */
+    public static void warmUp(Class<?>... types) {
+        for (Class<?> type : types) {
+            if (!ClassUtils.isPrimitiveOrWrapper(type)) {
+                MappingDescriptor.of(type);
+            }
+        }
+    }
+
+    /**
+     * jdbc的共享行映射，基本类型使用无状态的单列映射，其余类型为空，按查询创建实体映射
+     * jdbc与r2dbc均为可选依赖，分别在首次使用时加载
+     */
+    private static final class Jdbc {
+
+        private static final ClassValue<RowMapper<?>> MAPPERS = new ClassValue<>() {
+            @Override
+            protected RowMapper<?> computeValue(Class<?> type) {
+                return ClassUtils.isPrimitiveOrWrapper(type) ? SingleColumnRowMapper.newInstance(type) : null;
+            }
+        };
+    }
+
+    /**
+     * r2dbc行映射
+     */
+    private static final class Reactive {
+
+        private static final ClassValue<ReactiveSQLMappedRowMapper<?>> MAPPERS = new ClassValue<>() {
+            @Override
+            protected ReactiveSQLMappedRowMapper<?> computeValue(Class<?> type) {
+                return ReactiveSQLMappedRowMapper.newInstance(type);
+            }
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package group.flyfish.fluent.mapping;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.convert.ConversionService;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.JdbcUtils;
@@ -9,9 +10,12 @@ import org.springframework.lang.Nullable;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * 基于SQL映射的行映射器
+ * 每次查询使用独立的实例，列绑定计划在第一行解析，之后按下标直接读取，不持有结果集的引用；
+ * 实例不是线程安全的，不能在并发的查询间共享，映射描述器由所有实例共享
  *
  * @param <T> 响应实体泛型
  * @author wangyu
@@ -24,6 +28,11 @@ public class SQLMappedRowMapper<T> implements RowMapper<T> {
      */
     private final MappingDescriptor<T> descriptor;
 
+    /**
+     * 当前查询的列绑定计划
+     */
+    private ColumnPlan plan;
+
     /**
      * Create a new {@code BeanPropertyRowMapper}, accepting unpopulated
      * properties in the target bean.
@@ -45,29 +54,58 @@ public class SQLMappedRowMapper<T> implements RowMapper<T> {
 
     /**
      * Extract the values for all columns in the current row.
-     * <p>Utilizes public setters and result set meta-data.
+     * <p>每次查询的第一行解析列绑定计划，之后按下标直接读取写入
      *
      * @see java.sql.ResultSetMetaData
      */
     @Override
     public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
-        MappingBean<T> bean = descriptor.create();
-
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int columnCount = rsmd.getColumnCount();
-
-        for (int i = 1; i <= columnCount; i++) {
-            String column = JdbcUtils.lookupColumnName(rsmd, i);
+        // 行号从0开始，实例被顺序复用于下一次查询时重新解析
+        ColumnPlan plan = this.plan;
+        if (null == plan || rowNumber == 0) {
+            this.plan = plan = resolvePlan(rs);
+        }
+        // 不可变类型先收集构造器参数，最后一次构造
+        Object[] arguments = descriptor.isConstructed() ? descriptor.arguments() : null;
+        T instance = null == arguments ? descriptor.instantiate() : null;
+        ConversionService conversionService = descriptor.getConversionService();
+        int[] indexes = plan.indexes;
+        MappedProperty[] properties = plan.properties;
+        ColumnPlan.ColumnReader[] readers = plan.readers;
+        for (int i = 0; i < indexes.length; i++) {
+            MappedProperty property = properties[i];
+            ColumnPlan.ColumnReader reader = readers[i];
             try {
-                final int index = i;
-                bean.setValue(column, type -> getColumnValue(rs, index, type));
+                Object value = null != reader ? reader.read(rs, indexes[i]) : getColumnValue(rs, indexes[i], property.getType());
+                if (null == arguments) {
+                    property.write(instance, value, conversionService);
+                } else {
+                    property.bind(arguments, value, conversionService);
+                }
             } catch (Exception ex) {
                 throw new DataRetrievalFailureException(
-                        "Unable to map column '" + column + "' to property '" + bean.getProperty(column) + "'", ex);
+                        "Unable to map column '" + plan.columns[i] + "' to property '" + property.getName() + "'", ex);
             }
         }
+        return null == arguments ? instance : descriptor.construct(arguments);
+    }
 
-        return bean.get();
+    /**
+     * 解析当前结果集的列绑定计划
+     *
+     * @param rs 结果集
+     * @return 计划
+     */
+    private ColumnPlan resolvePlan(ResultSet rs) throws SQLException {
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int columnCount = rsmd.getColumnCount();
+        String[] columns = new String[columnCount];
+        int[] types = new int[columnCount];
+        for (int i = 1; i <= columnCount; i++) {
+            columns[i - 1] = JdbcUtils.lookupColumnName(rsmd, i);
+            types[i - 1] = rsmd.getColumnType(i);
+        }
+        return descriptor.plan(List.of(columns), types);
     }
 
     @Nullable
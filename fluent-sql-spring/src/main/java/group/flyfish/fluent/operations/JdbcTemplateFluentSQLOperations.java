@@ -2,12 +2,34 @@ package group.flyfish.fluent.operations;
 
 import group.flyfish.fluent.chain.SQL;
 import group.flyfish.fluent.entity.BoundSQLEntity;
-import group.flyfish.fluent.mapping.SQLMappedRowMapper;
+import group.flyfish.fluent.entity.ExecutionHints;
+import group.flyfish.fluent.mapping.RowMappers;
+import group.flyfish.fluent.utils.concurrent.FluentExecutors;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * jdbc template实现的查询操作
@@ -16,8 +38,17 @@ import java.util.List;
  */
 public class JdbcTemplateFluentSQLOperations implements FluentSQLOperations {
 
+    // 流式查询的默认抓取数量
+    private static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+
+    // 常见连接池读取最大连接数的方法
+    private static final String[] POOL_SIZE_METHODS = {"getMaximumPoolSize", "getMaxActive", "getMaxTotal"};
+
     private final JdbcOperations jdbcOperations;
 
+    // 流式查询的抓取数量
+    private int streamFetchSize = DEFAULT_STREAM_FETCH_SIZE;
+
     /**
      * 实例化 + 自动绑定
      *
@@ -28,6 +59,45 @@ public class JdbcTemplateFluentSQLOperations implements FluentSQLOperations {
         SQL.bind(this);
     }
 
+    /**
+     * 将异步模式的并发上限设置为连接池的最大连接数
+     * 并发上限是全局配置，存在多个数据源时应只对主数据源调用一次，或直接调用 {@link FluentExecutors#setAsyncConcurrency(int)}
+     *
+     * @return 当前实例
+     */
+    public JdbcTemplateFluentSQLOperations alignAsyncConcurrency() {
+        if (jdbcOperations instanceof JdbcTemplate && null != ((JdbcTemplate) jdbcOperations).getDataSource()) {
+            int poolSize = poolSize(((JdbcTemplate) jdbcOperations).getDataSource());
+            if (poolSize > 0) {
+                FluentExecutors.setAsyncConcurrency(poolSize);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 读取连接池的最大连接数，兼容HikariCP、Druid、Tomcat JDBC和DBCP2
+     *
+     * @param dataSource 数据源
+     * @return 最大连接数，无法识别时返回-1
+     */
+    private static int poolSize(DataSource dataSource) {
+        for (String name : POOL_SIZE_METHODS) {
+            Method method = ClassUtils.getMethodIfAvailable(dataSource.getClass(), name);
+            if (null != method) {
+                try {
+                    Object size = method.invoke(dataSource);
+                    if (size instanceof Integer) {
+                        return (Integer) size;
+                    }
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
     /**
      * 执行一条sql，并且序列化为对象
      * 注意，如果查询不止一条，该方法仅返回第一条数据
@@ -41,12 +111,11 @@ public class JdbcTemplateFluentSQLOperations implements FluentSQLOperations {
     @SuppressWarnings("all")
     public <T> T selectOne(BoundSQLEntity<T> entity) {
         try {
-            String sql = entity.getSql();
-            Class<T> type = entity.getResultType();
-            if (ClassUtils.isPrimitiveOrWrapper(type)) {
-                return jdbcOperations.queryForObject(sql, type, entity.getParameters());
+            RowMapper<T> mapper = RowMappers.jdbc(entity.getResultType());
+            if (entity.getHints().isEmpty()) {
+                return jdbcOperations.queryForObject(entity.getSql(), mapper, entity.getParameters());
             }
-            return jdbcOperations.queryForObject(sql, SQLMappedRowMapper.newInstance(type), entity.getParameters());
+            return DataAccessUtils.nullableSingleResult(query(entity, mapper));
         } catch (EmptyResultDataAccessException e) {
             return null;
         }
@@ -60,12 +129,69 @@ public class JdbcTemplateFluentSQLOperations implements FluentSQLOperations {
      */
     @Override
     public <T> List<T> select(BoundSQLEntity<T> entity) {
-        String sql = entity.getSql();
-        Class<T> type = entity.getResultType();
-        if (ClassUtils.isPrimitiveOrWrapper(type)) {
-            return jdbcOperations.queryForList(sql, type, entity.getParameters());
+        RowMapper<T> mapper = RowMappers.jdbc(entity.getResultType());
+        if (entity.getHints().isEmpty()) {
+            return jdbcOperations.query(entity.getSql(), mapper, entity.getParameters());
         }
-        return jdbcOperations.query(sql, SQLMappedRowMapper.newInstance(type), entity.getParameters());
+        return query(entity, mapper);
+    }
+
+    /**
+     * 以只进、只读的游标执行查询，行在消费时才映射
+     * 流关闭时释放语句和连接，执行提示中的抓取数量优先于全局配置
+     * 抓取数量和执行提示在模板的全局配置之后应用，不会被模板覆盖
+     *
+     * @param entity sql实体
+     * @return 结果流
+     */
+    @Override
+    public <T> Stream<T> stream(BoundSQLEntity<T> entity) {
+        Object[] parameters = entity.getParameters();
+        ExecutionHints hints = entity.getHints();
+        return jdbcOperations.queryForStream(entity.getSql(), ps -> {
+            customize(ps, hints);
+            ps.setFetchSize(streamFetchSize(ps.getConnection(), hints));
+            new ArgumentPreparedStatementSetter(parameters).setValues(ps);
+        }, RowMappers.jdbc(entity.getResultType()));
+    }
+
+    /**
+     * 设置流式查询的抓取数量
+     *
+     * @param streamFetchSize 抓取数量
+     */
+    public void setStreamFetchSize(int streamFetchSize) {
+        Assert.isTrue(streamFetchSize > 0, "抓取数量必须大于0！");
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    /**
+     * 取得适合当前驱动的抓取数量
+     * MySQL驱动未开启 useCursorFetch 时仅在抓取数量为 {@link Integer#MIN_VALUE} 时逐行读取，
+     * 其他值都会缓冲整个结果集，因此忽略执行提示；其余情况下执行提示优先于配置值
+     *
+     * @param connection 连接
+     * @param hints      执行提示
+     * @return 抓取数量
+     * @throws SQLException 读取元数据异常
+     */
+    private int streamFetchSize(Connection connection, ExecutionHints hints) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String product = metaData.getDatabaseProductName();
+        if (null != product && product.toLowerCase().contains("mysql") && !cursorFetch(metaData.getURL())) {
+            return Integer.MIN_VALUE;
+        }
+        return hints.getFetchSize() > 0 ? hints.getFetchSize() : streamFetchSize;
+    }
+
+    /**
+     * 连接地址中是否开启了MySQL的服务端游标
+     *
+     * @param url 连接地址
+     * @return 结果
+     */
+    private static boolean cursorFetch(String url) {
+        return null != url && url.toLowerCase().contains("usecursorfetch=true");
     }
 
     /**
@@ -76,6 +202,130 @@ public class JdbcTemplateFluentSQLOperations implements FluentSQLOperations {
      */
     @Override
     public <T> int execute(BoundSQLEntity<T> entity) {
-        return jdbcOperations.update(entity.getSql(), entity.getParameters());
+        if (entity.getHints().isEmpty()) {
+            return jdbcOperations.update(entity.getSql(), entity.getParameters());
+        }
+        Integer count = execute(entity, PreparedStatement::executeUpdate);
+        return null == count ? 0 : count;
+    }
+
+    /**
+     * 基于 {@link JdbcOperations#batchUpdate(String, java.util.Collection, int, org.springframework.jdbc.core.ParameterizedPreparedStatementSetter)}
+     * 按批次执行，结果按参数顺序展开；执行提示在语句设置第一组参数前应用一次，因此优先于模板的全局配置
+     *
+     * @param entity     sql实体
+     * @param parameters 多组参数
+     * @param batchSize  每批的数量
+     * @return 每组参数对应的更新行数
+     */
+    @Override
+    public <T> int[] executeBatch(BoundSQLEntity<T> entity, List<Object[]> parameters, int batchSize) {
+        ExecutionHints hints = entity.getHints();
+        // 已应用执行提示的语句，同一条语句的后续参数组不再重复设置
+        PreparedStatement[] customized = new PreparedStatement[1];
+        int[][] batches = jdbcOperations.batchUpdate(entity.getSql(), parameters, batchSize, (ps, args) -> {
+            if (customized[0] != ps) {
+                customize(ps, hints);
+                customized[0] = ps;
+            }
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+        });
+        int[] counts = new int[parameters.size()];
+        int index = 0;
+        for (int[] batch : batches) {
+            System.arraycopy(batch, 0, counts, index, batch.length);
+            index += batch.length;
+        }
+        return counts;
+    }
+
+    /**
+     * 执行插入并收集生成的主键，每行主键为一个map，与 {@link org.springframework.jdbc.support.GeneratedKeyHolder} 的结果一致
+     * 执行提示在模板的全局配置之后应用
+     *
+     * @param entity     sql实体
+     * @param keyColumns 主键列，为空时由驱动决定
+     * @return 每行生成的主键
+     */
+    @Override
+    public <T> List<Map<String, Object>> executeReturningKeys(BoundSQLEntity<T> entity, String... keyColumns) {
+        String sql = entity.getSql();
+        Object[] parameters = entity.getParameters();
+        ExecutionHints hints = entity.getHints();
+        PreparedStatementCreator creator = connection -> null != keyColumns && keyColumns.length > 0 ?
+                connection.prepareStatement(sql, keyColumns) :
+                connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        List<Map<String, Object>> keys = jdbcOperations.execute(creator, ps -> {
+            customize(ps, hints);
+            new ArgumentPreparedStatementSetter(parameters).setValues(ps);
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                return null == rs ? List.of() : new RowMapperResultSetExtractor<>(new ColumnMapRowMapper()).extractData(rs);
+            }
+        });
+        return null == keys ? List.of() : keys;
+    }
+
+    /**
+     * 事务中的查询绑定在当前线程的连接上，不能分发到其他线程
+     *
+     * @return 是否可以并行查询
+     */
+    @Override
+    public boolean supportsConcurrentQueries() {
+        return !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * 带执行提示查询
+     *
+     * @param entity sql实体
+     * @param mapper 行映射
+     * @return 结果
+     */
+    private <T> List<T> query(BoundSQLEntity<T> entity, RowMapper<T> mapper) {
+        return execute(entity, ps -> {
+            try (ResultSet rs = ps.executeQuery()) {
+                return new RowMapperResultSetExtractor<>(mapper).extractData(rs);
+            }
+        });
+    }
+
+    /**
+     * 带执行提示执行，提示在模板的全局配置之后应用，因此优先于全局配置
+     *
+     * @param entity sql实体
+     * @param action 语句回调
+     * @return 回调结果
+     */
+    private <R> R execute(BoundSQLEntity<?> entity, PreparedStatementCallback<R> action) {
+        ExecutionHints hints = entity.getHints();
+        Object[] parameters = entity.getParameters();
+        PreparedStatementCallback<R> callback = ps -> {
+            customize(ps, hints);
+            new ArgumentPreparedStatementSetter(parameters).setValues(ps);
+            return action.doInPreparedStatement(ps);
+        };
+        return jdbcOperations.execute(entity.getSql(), callback);
+    }
+
+    /**
+     * 将执行提示应用到语句，未指定的项保持不变
+     *
+     * @param statement 语句
+     * @param hints     执行提示
+     * @throws SQLException 设置异常
+     */
+    private static void customize(Statement statement, ExecutionHints hints) throws SQLException {
+        if (hints.getFetchSize() > 0) {
+            statement.setFetchSize(hints.getFetchSize());
+        }
+        if (hints.getMaxRows() > 0) {
+            statement.setMaxRows(hints.getMaxRows());
+        }
+        if (null != hints.getTimeout()) {
+            // jdbc的超时以秒为单位，不足一秒按一秒计
+            statement.setQueryTimeout((int) Math.max(1, (hints.getTimeout().toMillis() + 999) / 1000));
+        }
     }
 }
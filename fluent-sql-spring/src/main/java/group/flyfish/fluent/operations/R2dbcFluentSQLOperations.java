@@ -2,12 +2,19 @@ package group.flyfish.fluent.operations;
 
 import group.flyfish.fluent.chain.SQL;
 import group.flyfish.fluent.entity.BoundSQLEntity;
-import group.flyfish.fluent.mapping.ReactiveSQLMappedRowMapper;
+import group.flyfish.fluent.entity.ExecutionHints;
+import group.flyfish.fluent.mapping.RowMappers;
+import io.r2dbc.spi.Statement;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+
 public class R2dbcFluentSQLOperations implements ReactiveFluentSQLOperations {
 
     private final DatabaseClient databaseClient;
@@ -27,19 +34,45 @@ public class R2dbcFluentSQLOperations implements ReactiveFluentSQLOperations {
      */
     @Override
     public <T> Mono<T> selectOne(BoundSQLEntity<T> entity) {
-        return forSelect(entity).one();
-
+        return timeout(forSelect(entity).one(), entity.getHints());
     }
 
     /**
      * 执行一条sql，并且查询出所有行
+     * 指定最大行数时，超出的行不再向下游发送
      *
      * @param entity sql实体
      * @return 返回的列表
      */
     @Override
     public <T> Flux<T> select(BoundSQLEntity<T> entity) {
-        return forSelect(entity).all();
+        ExecutionHints hints = entity.getHints();
+        Flux<T> rows = forSelect(entity).all();
+        if (hints.getMaxRows() > 0) {
+            rows = rows.take(hints.getMaxRows());
+        }
+        return null == hints.getTimeout() ? rows : rows.timeout(hints.getTimeout());
+    }
+
+    /**
+     * 流式读取，抓取数量下发到驱动，并以同样的粒度向上游请求数据
+     * 下游消费变慢时不再请求，驱动随之暂停读取；超时与 {@link #select(BoundSQLEntity)} 一致
+     *
+     * @param entity    sql实体
+     * @param fetchSize 每次从数据库读取的行数
+     * @return 结果流
+     */
+    @Override
+    public <T> Flux<T> stream(BoundSQLEntity<T> entity, int fetchSize) {
+        Flux<T> rows = resolve(entity, fetchSize)
+                .map(RowMappers.reactive(entity.getResultType()))
+                .all()
+                .limitRate(fetchSize);
+        ExecutionHints hints = entity.getHints();
+        if (hints.getMaxRows() > 0) {
+            rows = rows.take(hints.getMaxRows());
+        }
+        return null == hints.getTimeout() ? rows : rows.timeout(hints.getTimeout());
     }
 
     /**
@@ -50,16 +83,99 @@ public class R2dbcFluentSQLOperations implements ReactiveFluentSQLOperations {
      */
     @Override
     public <T> Mono<Long> execute(BoundSQLEntity<T> entity) {
-        return resolve(entity).fetch().rowsUpdated();
+        return timeout(resolve(entity).fetch().rowsUpdated(), entity.getHints());
+    }
+
+    /**
+     * 在同一个连接上执行一批参数，每组参数之间以 {@link Statement#add()} 分隔
+     * 批次之间并发执行，结果按批次顺序输出，上游按批次的消费速度请求数据
+     * 响应式事务中所有批次共用事务的连接，同一连接不能并发执行语句，因此逐批执行；超时与查询一致
+     *
+     * @param entity      sql实体
+     * @param parameters  多组参数
+     * @param batchSize   每批的数量
+     * @param concurrency 同时执行的批次数量
+     * @return 每组参数对应的更新行数
+     */
+    @Override
+    public <T> Flux<Long> executeBatch(BoundSQLEntity<T> entity, Flux<Object[]> parameters, int batchSize, int concurrency) {
+        String sql = entity.getSql();
+        Duration timeout = entity.getHints().getTimeout();
+        Flux<Long> counts = inTransaction().flatMapMany(transactional -> parameters.buffer(batchSize)
+                .flatMapSequential(batch -> databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(sql);
+                    Class<?>[] nullTypes = null;
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        Object[] values = batch.get(i);
+                        for (int j = 0; j < values.length; j++) {
+                            if (null != values[j]) {
+                                statement.bind(j, values[j]);
+                                continue;
+                            }
+                            if (null == nullTypes) {
+                                nullTypes = new Class<?>[values.length];
+                            }
+                            if (null == nullTypes[j]) {
+                                nullTypes[j] = nullType(batch, j);
+                            }
+                            statement.bindNull(j, nullTypes[j]);
+                        }
+                    }
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> Mono.from(result.getRowsUpdated()).map(Number::longValue));
+                }), transactional ? 1 : concurrency));
+        return null == timeout ? counts : counts.timeout(timeout);
+    }
+
+    /**
+     * 当前订阅是否处于响应式事务中
+     *
+     * @return 结果
+     */
+    private static Mono<Boolean> inTransaction() {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .map(TransactionSynchronizationManager::isActualTransactionActive)
+                .onErrorResume(NoTransactionException.class, e -> Mono.just(false));
     }
 
     /**
-     * 解析sql实体
+     * 取得空值的绑定类型，部分驱动（如r2dbc-postgresql）不接受 {@link Object} 类型的空值
+     * 以同一批次中该位置的首个非空值为准，整列为空时按字符串绑定
+     *
+     * @param batch  批次
+     * @param column 参数下标
+     * @return 类型
+     */
+    private static Class<?> nullType(List<Object[]> batch, int column) {
+        for (Object[] values : batch) {
+            if (column < values.length && null != values[column]) {
+                return values[column].getClass();
+            }
+        }
+        return String.class;
+    }
+
+    /**
+     * 解析sql实体，使用执行提示中的抓取数量
      *
      * @param entity 实体信息
      * @return 结果
      */
     private <T> DatabaseClient.GenericExecuteSpec resolve(BoundSQLEntity<T> entity) {
+        return resolve(entity, entity.getHints().getFetchSize());
+    }
+
+    /**
+     * 解析sql实体，抓取数量通过 {@link Statement#fetchSize(int)} 下发到驱动
+     *
+     * @param entity    实体信息
+     * @param fetchSize 抓取数量，0代表不指定
+     * @return 结果
+     */
+    private <T> DatabaseClient.GenericExecuteSpec resolve(BoundSQLEntity<T> entity, int fetchSize) {
         DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(entity);
         Object[] parameters = entity.getParameters();
         if (null != parameters) {
@@ -67,11 +183,25 @@ public class R2dbcFluentSQLOperations implements ReactiveFluentSQLOperations {
                 spec = spec.bind(i, parameters[i]);
             }
         }
+        if (fetchSize > 0) {
+            spec = spec.filter(statement -> statement.fetchSize(fetchSize));
+        }
         return spec;
     }
 
     private <T> RowsFetchSpec<T> forSelect(BoundSQLEntity<T> entity) {
         return resolve(entity)
-                .map(ReactiveSQLMappedRowMapper.newInstance(entity.getResultType()));
+                .map(RowMappers.reactive(entity.getResultType()));
+    }
+
+    /**
+     * 按执行提示设置超时
+     *
+     * @param mono  结果
+     * @param hints 执行提示
+     * @return 结果
+     */
+    private <R> Mono<R> timeout(Mono<R> mono, ExecutionHints hints) {
+        return null == hints.getTimeout() ? mono : mono.timeout(hints.getTimeout());
     }
 }
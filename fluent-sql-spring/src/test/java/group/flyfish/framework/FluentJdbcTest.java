@@ -4,11 +4,17 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.mysql.cj.jdbc.Driver;
 import group.flyfish.fluent.operations.FluentSQLOperations;
 import group.flyfish.fluent.operations.JdbcTemplateFluentSQLOperations;
+import group.flyfish.framework.cases.BatchUpdateTestCase;
+import group.flyfish.framework.cases.CompiledStatementTestCase;
+import group.flyfish.framework.cases.CursorPageTestCase;
 import group.flyfish.framework.cases.FluentSqlTestCase;
+import group.flyfish.framework.cases.ImmutableMappingTestCase;
 import group.flyfish.framework.cases.JdbcTestCase;
 import group.flyfish.framework.cases.MixedStringAndObjectTablesTestCase;
 import group.flyfish.framework.cases.MybatisTestCase;
+import group.flyfish.framework.cases.RecordCursorPageTestCase;
 import group.flyfish.framework.cases.SingleTableTestCase;
+import group.flyfish.framework.cases.ToOneCountTestCase;
 import org.junit.Test;
 import org.springframework.context.annotation.Bean;
 import org.springframework.jdbc.core.JdbcOperations;
@@ -51,7 +57,19 @@ public class FluentJdbcTest {
                 // 单表测试
                 new SingleTableTestCase(),
                 // 混合字符串与对象表名测试
-                new MixedStringAndObjectTablesTestCase(dataSource)
+                new MixedStringAndObjectTablesTestCase(dataSource),
+                // 编译语句测试
+                new CompiledStatementTestCase(dataSource),
+                // 批量更新测试
+                new BatchUpdateTestCase(dataSource),
+                // 游标分页测试
+                new CursorPageTestCase(dataSource),
+                // 记录类型游标分页测试
+                new RecordCursorPageTestCase(dataSource),
+                // 对一连接计数测试
+                new ToOneCountTestCase(dataSource),
+                // 不可变类型映射测试
+                new ImmutableMappingTestCase(dataSource)
         );
         // 执行测试
         cases.forEach(TestCase::test);
@@ -5,11 +5,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import group.flyfish.fluent.chain.select.FetchSqlChain;
 import group.flyfish.fluent.debug.FluentSqlDebugger;
 import group.flyfish.fluent.entity.DataPage;
+import group.flyfish.fluent.mapping.RowMappers;
 import group.flyfish.fluent.operations.R2dbcFluentSQLOperations;
+import group.flyfish.framework.cases.ImmutableMappingTestCase;
 import group.flyfish.framework.entity.SaasOrder;
 import group.flyfish.framework.entity.SaasPlan;
 import group.flyfish.framework.entity.SaasTenant;
 import group.flyfish.framework.vo.TenantContext;
+import group.flyfish.framework.vo.TenantRecord;
+import group.flyfish.framework.vo.TenantSummary;
 import io.asyncer.r2dbc.mysql.MySqlConnectionConfiguration;
 import io.asyncer.r2dbc.mysql.MySqlConnectionFactory;
 import io.r2dbc.spi.ConnectionFactory;
@@ -17,6 +21,7 @@ import org.junit.Test;
 import org.springframework.r2dbc.core.DatabaseClient;
 
 import java.sql.SQLException;
+import java.util.List;
 
 import static group.flyfish.fluent.chain.SQL.select;
 import static group.flyfish.fluent.chain.select.SelectComposite.composite;
@@ -76,6 +81,43 @@ public class FluentR2dbcTest {
                 .page(DataPage.of(1, 10))
                 .doOnNext(this::printObject)
                 .block();
+
+        // 测试分页的计数与列表一致，两条sql在订阅前渲染完毕，不会相互干扰
+        Integer total = getSql().as(TenantContext.class).reactive().count().block();
+        List<TenantContext> all = getSql().as(TenantContext.class).reactive().all().collectList().block();
+        for (int i = 0; i < 20; i++) {
+            DataPage<TenantContext> page = getSql().as(TenantContext.class)
+                    .reactive()
+                    .page(DataPage.of(0, 5))
+                    .block();
+            assert null != page && null != total && null != all;
+            assert page.getTotal() == total : "分页总数与计数不一致！";
+            assert page.getList().size() == Math.min(5, total) : "分页列表与计数不一致！";
+            assert all.size() == total : "全量查询与计数不一致！";
+        }
+
+        // 测试记录映射
+        select(composite(SaasTenant::getId, SaasTenant::getName, SaasTenant::getStatus,
+                SaasTenant::getEnable, SaasTenant::getDatasource))
+                .from(SaasTenant.class)
+                .matching(where(SaasTenant::getEnable).eq(true))
+                .as(TenantRecord.class)
+                .reactive()
+                .all()
+                .doOnNext(ImmutableMappingTestCase::verify)
+                .collectList()
+                .doOnNext(this::printObject)
+                .block();
+
+        // 测试构造器映射与json数组列
+        databaseClient.sql(ImmutableMappingTestCase.SUMMARY_SQL)
+                .bind(0, true)
+                .map(RowMappers.reactive(TenantSummary.class))
+                .all()
+                .doOnNext(ImmutableMappingTestCase::verify)
+                .collectList()
+                .doOnNext(this::printObject)
+                .block();
     }
 
     private void printObject(Object object) {
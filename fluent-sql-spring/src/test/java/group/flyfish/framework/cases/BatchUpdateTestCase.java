@@ -0,0 +1,62 @@
+package group.flyfish.framework.cases;
+
+import group.flyfish.fluent.chain.SQL;
+import group.flyfish.fluent.operations.JdbcTemplateFluentSQLOperations;
+import group.flyfish.framework.TestCase;
+import group.flyfish.framework.entity.SaasTenant;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static group.flyfish.fluent.chain.SQL.select;
+import static group.flyfish.fluent.query.Query.where;
+
+/**
+ * 批量更新测试，同一条sql绑定多组参数分批执行
+ *
+ * @author wangyu
+ */
+@TestCase.Name("批量更新测试")
+public class BatchUpdateTestCase extends AbstractTestCase<int[]> {
+
+    private List<SaasTenant> tenants;
+
+    public BatchUpdateTestCase(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /**
+     * 初始化
+     *
+     * @throws Exception 异常
+     */
+    @Override
+    public void initialize() throws Exception {
+        new JdbcTemplateFluentSQLOperations(new JdbcTemplate(dataSource));
+        this.tenants = select().from(SaasTenant.class).<SaasTenant>fetch().block().all();
+    }
+
+    /**
+     * 测试运行逻辑
+     *
+     * @return 运行结果
+     * @throws Exception 异常
+     */
+    @Override
+    public int[] run() throws Exception {
+        // 以第一个租户构建语句形状，参数按 set 和 where 的顺序提供
+        SaasTenant first = tenants.get(0);
+        List<Object[]> parameters = tenants.stream()
+                .map(tenant -> new Object[]{tenant.getComment(), tenant.getId()})
+                .collect(Collectors.toList());
+        return SQL.update(SaasTenant.class)
+                .set(SaasTenant::getComment, String.valueOf(first.getComment()))
+                .then()
+                .matching(where(SaasTenant::getId).eq(first.getId()))
+                .fetch()
+                .block()
+                .executeBatch(parameters, 100);
+    }
+}
@@ -0,0 +1,71 @@
+package group.flyfish.framework.cases;
+
+import group.flyfish.fluent.chain.execution.CompiledStatement;
+import group.flyfish.fluent.operations.JdbcTemplateFluentSQLOperations;
+import group.flyfish.framework.TestCase;
+import group.flyfish.framework.entity.SaasOrder;
+import group.flyfish.framework.entity.SaasPlan;
+import group.flyfish.framework.entity.SaasTenant;
+import group.flyfish.framework.vo.TenantContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static group.flyfish.fluent.chain.SQL.select;
+import static group.flyfish.fluent.chain.select.SelectComposite.composite;
+import static group.flyfish.fluent.query.Query.where;
+
+/**
+ * 编译语句测试，启动时编译一次，多线程共享执行
+ *
+ * @author wangyu
+ */
+@TestCase.Name("编译语句多线程执行")
+public class CompiledStatementTestCase extends AbstractTestCase<List<TenantContext>> {
+
+    private CompiledStatement<TenantContext> statement;
+
+    public CompiledStatementTestCase(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /**
+     * 初始化
+     *
+     * @throws Exception 异常
+     */
+    @Override
+    public void initialize() throws Exception {
+        new JdbcTemplateFluentSQLOperations(new JdbcTemplate(dataSource));
+        // 编译一次，后续不再渲染
+        this.statement = select(
+                composite(SaasTenant::getId, SaasTenant::getName, SaasTenant::getIdentifier, SaasTenant::getDatasource,
+                        SaasTenant::getStorage, SaasTenant::getStatus, SaasTenant::getEnable),
+                composite(SaasOrder::getQuotaConfig, SaasOrder::getOrderTime, SaasOrder::getExpireTime,
+                        SaasOrder::getOrderType))
+                .from(SaasTenant.class)
+                .leftJoin(SaasOrder.class).on(where(SaasOrder::getTenantId).eq(SaasTenant::getId))
+                .leftJoin(SaasPlan.class).on(where(SaasPlan::getId).eq(SaasOrder::getPlanId))
+                .matching(where(SaasTenant::getEnable).eq(true))
+                .compile(TenantContext.class);
+    }
+
+    /**
+     * 测试运行逻辑
+     *
+     * @return 运行结果
+     * @throws Exception 异常
+     */
+    @Override
+    public List<TenantContext> run() throws Exception {
+        // 多线程并发执行同一个编译结果
+        List<CompletableFuture<List<TenantContext>>> futures = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> statement.bind(true).block().all()))
+                .collect(Collectors.toList());
+        return futures.stream().map(CompletableFuture::join).findFirst().orElse(null);
+    }
+}
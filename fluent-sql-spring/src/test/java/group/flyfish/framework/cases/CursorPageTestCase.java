@@ -0,0 +1,61 @@
+package group.flyfish.framework.cases;
+
+import group.flyfish.fluent.chain.Order;
+import group.flyfish.fluent.entity.CursorPage;
+import group.flyfish.fluent.operations.JdbcTemplateFluentSQLOperations;
+import group.flyfish.framework.TestCase;
+import group.flyfish.framework.entity.SaasTenant;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static group.flyfish.fluent.chain.SQL.select;
+import static group.flyfish.fluent.query.Query.where;
+
+/**
+ * 游标分页测试，逐页翻到末尾
+ *
+ * @author wangyu
+ */
+@TestCase.Name("游标分页测试")
+public class CursorPageTestCase extends AbstractTestCase<List<SaasTenant>> {
+
+    public CursorPageTestCase(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /**
+     * 初始化
+     *
+     * @throws Exception 异常
+     */
+    @Override
+    public void initialize() throws Exception {
+        new JdbcTemplateFluentSQLOperations(new JdbcTemplate(dataSource));
+    }
+
+    /**
+     * 测试运行逻辑
+     *
+     * @return 运行结果
+     * @throws Exception 异常
+     */
+    @Override
+    public List<SaasTenant> run() throws Exception {
+        List<SaasTenant> result = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<SaasTenant> page = select().from(SaasTenant.class)
+                    .matching(where(SaasTenant::getDelete).eq(false))
+                    .order(Order.by(SaasTenant::getId).asc())
+                    .<SaasTenant>fetch()
+                    .block()
+                    .seek(cursor, 2);
+            result.addAll(page.getList());
+            cursor = page.getNext();
+        } while (null != cursor);
+        return result;
+    }
+}
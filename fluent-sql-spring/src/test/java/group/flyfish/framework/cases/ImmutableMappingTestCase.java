@@ -0,0 +1,94 @@
+package group.flyfish.framework.cases;
+
+import group.flyfish.fluent.mapping.RowMappers;
+import group.flyfish.fluent.operations.JdbcTemplateFluentSQLOperations;
+import group.flyfish.framework.TestCase;
+import group.flyfish.framework.entity.SaasQuota;
+import group.flyfish.framework.entity.SaasTenant;
+import group.flyfish.framework.vo.TenantRecord;
+import group.flyfish.framework.vo.TenantSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static group.flyfish.fluent.chain.SQL.select;
+import static group.flyfish.fluent.chain.select.SelectComposite.composite;
+import static group.flyfish.fluent.query.Query.where;
+
+/**
+ * 不可变类型映射测试
+ * 记录通过链式查询映射，构造器绑定的对象通过行映射器映射，其json数组列需要保留元素的泛型
+ *
+ * @author wangyu
+ */
+@TestCase.Name("不可变类型映射测试")
+public class ImmutableMappingTestCase extends AbstractTestCase<List<TenantSummary>> {
+
+    /**
+     * 每条订阅的配额包装为json数组，响应式测试共用
+     */
+    public static final String SUMMARY_SQL = "SELECT t.`id` AS `id`, t.`name` AS `name`, t.`identifier` AS `identifier`, " +
+            "CONCAT('[', o.`quota_config`, ']') AS `quotas` " +
+            "FROM saas_tenant t JOIN saas_order o ON o.`tenant_id` = t.`id` " +
+            "WHERE t.`enable` = ? AND o.`quota_config` IS NOT NULL";
+
+    private JdbcTemplate jdbcTemplate;
+
+    public ImmutableMappingTestCase(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /**
+     * 初始化
+     *
+     * @throws Exception 异常
+     */
+    @Override
+    public void initialize() throws Exception {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        new JdbcTemplateFluentSQLOperations(jdbcTemplate);
+    }
+
+    /**
+     * 测试运行逻辑
+     *
+     * @return 运行结果
+     * @throws Exception 异常
+     */
+    @Override
+    public List<TenantSummary> run() throws Exception {
+        List<TenantRecord> records = select(composite(SaasTenant::getId, SaasTenant::getName, SaasTenant::getStatus,
+                SaasTenant::getEnable, SaasTenant::getDatasource))
+                .from(SaasTenant.class)
+                .matching(where(SaasTenant::getEnable).eq(true))
+                .as(TenantRecord.class)
+                .block()
+                .all();
+        records.forEach(ImmutableMappingTestCase::verify);
+        List<TenantSummary> summaries = jdbcTemplate.query(SUMMARY_SQL, RowMappers.jdbc(TenantSummary.class), true);
+        summaries.forEach(ImmutableMappingTestCase::verify);
+        return summaries;
+    }
+
+    /**
+     * 校验记录，构造器参数全部来自查询的列
+     *
+     * @param record 记录
+     */
+    public static void verify(TenantRecord record) {
+        assert null != record.id() : "记录的id未映射";
+        assert Boolean.TRUE.equals(record.enable()) : "记录的启用状态未映射";
+    }
+
+    /**
+     * 校验概要，json数组的元素应为配额对象而不是Map
+     *
+     * @param summary 概要
+     */
+    public static void verify(TenantSummary summary) {
+        assert null != summary.getId() : "概要的id未映射";
+        assert null != summary.getQuotas() && !summary.getQuotas().isEmpty() : "配额数组未映射";
+        assert summary.getQuotas().stream().allMatch(SaasQuota.class::isInstance) : "配额数组的元素类型不正确";
+    }
+}
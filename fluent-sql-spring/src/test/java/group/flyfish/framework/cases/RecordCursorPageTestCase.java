@@ -0,0 +1,65 @@
+package group.flyfish.framework.cases;
+
+import group.flyfish.fluent.chain.Order;
+import group.flyfish.fluent.entity.CursorPage;
+import group.flyfish.fluent.operations.JdbcTemplateFluentSQLOperations;
+import group.flyfish.framework.TestCase;
+import group.flyfish.framework.entity.SaasTenant;
+import group.flyfish.framework.vo.TenantRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static group.flyfish.fluent.chain.SQL.select;
+import static group.flyfish.fluent.chain.select.SelectComposite.composite;
+import static group.flyfish.fluent.query.Query.where;
+
+/**
+ * 游标分页到记录类型的测试，排序字段通过记录的访问器读取
+ *
+ * @author wangyu
+ */
+@TestCase.Name("记录类型游标分页测试")
+public class RecordCursorPageTestCase extends AbstractTestCase<List<TenantRecord>> {
+
+    public RecordCursorPageTestCase(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /**
+     * 初始化
+     *
+     * @throws Exception 异常
+     */
+    @Override
+    public void initialize() throws Exception {
+        new JdbcTemplateFluentSQLOperations(new JdbcTemplate(dataSource));
+    }
+
+    /**
+     * 测试运行逻辑
+     *
+     * @return 运行结果
+     * @throws Exception 异常
+     */
+    @Override
+    public List<TenantRecord> run() throws Exception {
+        List<TenantRecord> result = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<TenantRecord> page = select(composite(SaasTenant::getId, SaasTenant::getName,
+                    SaasTenant::getStatus, SaasTenant::getEnable, SaasTenant::getDatasource))
+                    .from(SaasTenant.class)
+                    .matching(where(SaasTenant::getDelete).eq(false))
+                    .order(Order.by(SaasTenant::getId).asc())
+                    .as(TenantRecord.class)
+                    .block()
+                    .seek(cursor, 2);
+            result.addAll(page.getList());
+            cursor = page.getNext();
+        } while (null != cursor);
+        return result;
+    }
+}
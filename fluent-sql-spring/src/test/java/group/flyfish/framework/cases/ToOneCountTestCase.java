@@ -0,0 +1,65 @@
+package group.flyfish.framework.cases;
+
+import group.flyfish.fluent.chain.Order;
+import group.flyfish.fluent.entity.DataPage;
+import group.flyfish.fluent.operations.JdbcTemplateFluentSQLOperations;
+import group.flyfish.framework.TestCase;
+import group.flyfish.framework.entity.SaasOrder;
+import group.flyfish.framework.entity.SaasPlan;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static group.flyfish.fluent.chain.SQL.select;
+import static group.flyfish.fluent.query.Query.where;
+
+/**
+ * 对一连接的计数测试
+ * 对一连接的on条件带有绑定参数时，计数sql需要保留该连接，参数与占位符数量一致
+ *
+ * @author wangyu
+ */
+@TestCase.Name("对一连接计数测试")
+public class ToOneCountTestCase extends AbstractTestCase<DataPage<SaasOrder>> {
+
+    public ToOneCountTestCase(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /**
+     * 初始化
+     *
+     * @throws Exception 异常
+     */
+    @Override
+    public void initialize() throws Exception {
+        new JdbcTemplateFluentSQLOperations(new JdbcTemplate(dataSource));
+    }
+
+    /**
+     * 测试运行逻辑
+     *
+     * @return 运行结果
+     * @throws Exception 异常
+     */
+    @Override
+    public DataPage<SaasOrder> run() throws Exception {
+        DataPage<SaasOrder> page = select().from(SaasOrder.class)
+                .leftJoin(SaasPlan.class).toOne()
+                .on(where(SaasPlan::getId).eq(SaasOrder::getPlanId).and(SaasPlan::getEnable).eq(true))
+                .matching(where(SaasOrder::getDelete).eq(false))
+                .order(Order.by(SaasOrder::getId).asc())
+                .<SaasOrder>fetch()
+                .block()
+                .page(DataPage.of(1, 10));
+        int count = select().from(SaasOrder.class)
+                .leftJoin(SaasPlan.class).toOne()
+                .on(where(SaasPlan::getId).eq(SaasOrder::getPlanId).and(SaasPlan::getEnable).eq(true))
+                .matching(where(SaasOrder::getDelete).eq(false))
+                .fetch()
+                .block()
+                .count();
+        assert page.getTotal() == count : "分页总数与计数不一致";
+        return page;
+    }
+}
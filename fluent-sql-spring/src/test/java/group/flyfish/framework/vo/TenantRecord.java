@@ -0,0 +1,18 @@
+package group.flyfish.framework.vo;
+
+import group.flyfish.fluent.binding.JSONInject;
+import group.flyfish.framework.entity.SaasTenant;
+
+/**
+ * 租户记录，通过规范构造器映射
+ *
+ * @param id         租户id
+ * @param name       租户名称
+ * @param status     租户状态
+ * @param enable     租户启用状态
+ * @param datasource 租户数据源配置
+ * @author wangyu
+ */
+public record TenantRecord(String id, String name, SaasTenant.Status status, Boolean enable,
+                           @JSONInject SaasTenant.DataSourceConfig datasource) {
+}
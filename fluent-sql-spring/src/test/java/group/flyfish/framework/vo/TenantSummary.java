@@ -0,0 +1,38 @@
+package group.flyfish.framework.vo;
+
+import group.flyfish.fluent.binding.JSONInject;
+import group.flyfish.framework.entity.SaasQuota;
+import lombok.Getter;
+
+import java.beans.ConstructorProperties;
+import java.util.List;
+
+/**
+ * 租户概要，没有无参构造器，通过标注的构造器映射
+ *
+ * @author wangyu
+ */
+@Getter
+public class TenantSummary {
+
+    // 租户id
+    private final String id;
+
+    // 租户名称
+    private final String name;
+
+    // 租户标识符
+    private final String identifier;
+
+    // 全部订阅的配额，json数组
+    @JSONInject
+    private final List<SaasQuota> quotas;
+
+    @ConstructorProperties({"id", "name", "identifier", "quotas"})
+    public TenantSummary(String id, String name, String identifier, List<SaasQuota> quotas) {
+        this.id = id;
+        this.name = name;
+        this.identifier = identifier;
+        this.quotas = quotas;
+    }
+}